@@ -123,6 +123,9 @@ public class CodeGenerator extends Visitor {
   /** The prefix for field names that count accesses to memoized results. */
   public static final String PREFIX_COUNT_FIELD = "c";
 
+  /** The prefix for field names that hold reused semantic values. */
+  public static final String PREFIX_SLOT_FIELD = "yySlot";
+
   /** The general prefix for internal parser fields and variables. */
   public static final String PREFIX = "yy";
 
@@ -509,6 +512,17 @@ public class CodeGenerator extends Visitor {
     }
   }
 
+  /**
+   * Generate the name of the reused semantic value field for the
+   * specified nonterminal.
+   *
+   * @param nt The nonterminal.
+   * @return The corresponding field name.
+   */
+  public String slotName(NonTerminal nt) {
+    return PREFIX_SLOT_FIELD + nt.toIdentifier();
+  }
+
   /**
    * Generate the method name for the specified nonterminal.
    *
@@ -645,7 +659,7 @@ public class CodeGenerator extends Visitor {
     printer.indent().pln("// Process the memoization table.");
     printer.indent().pln("for (int i=0; i<yyCount; i++) {").incr();
     printer.indent().p(className).p("Column column = (").p(className).
-      pln("Column)yyColumns[i];");
+      pln("Column)memoized(i);");
     printer.pln();
     printer.indent().pln("if (null != column) {").incr();
 
@@ -785,7 +799,7 @@ public class CodeGenerator extends Visitor {
     printer.indent().pln("public void dump(Printer printer) {").incr();
     printer.indent().pln("for (int i=0; i<yyCount; i++) {").incr();
     printer.indent().p(className).p("Column column = (").p(className).
-      pln("Column)yyColumns[i];");
+      pln("Column)memoized(i);");
     printer.indent().pln("printer.indent().p(i).p(\" = \");");
     printer.pln();
 
@@ -889,6 +903,23 @@ public class CodeGenerator extends Visitor {
 
   // ========================================================================
 
+  /**
+   * Emit code for configuring the memoization table within a
+   * constructor, as specified by the <code>memoWindow</code> and
+   * <code>memoSparse</code> options.
+   */
+  protected void emitMemoOptions() {
+    if (runtime.test("memoSparse")) {
+      printer.indent().pln("setMemoSparse(true);");
+    }
+    if (0 < runtime.getInt("memoWindow")) {
+      printer.indent().p("setMemoWindow(").p(runtime.getInt("memoWindow")).
+        pln(");");
+    }
+  }
+
+  // ========================================================================
+
   /**
    * Emit code for a static main method.
    *
@@ -1040,6 +1071,14 @@ public class CodeGenerator extends Visitor {
       }
     }
 
+    boolean hasSlots = false;
+    for (Production p : m.productions) {
+      if (p.getBooleanProperty(Properties.SLOT)) {
+        hasSlots = true;
+        break;
+      }
+    }
+
     chunked    = false;
     chunkMap   = null;
     chunkCount = 0;
@@ -1118,6 +1157,9 @@ public class CodeGenerator extends Visitor {
     printer.indent().pln("import xtc.parser.Column;");
     printer.indent().pln("import xtc.parser.Result;");
     printer.indent().pln("import xtc.parser.SemanticValue;");
+    if (hasSlots) {
+      printer.indent().pln("import xtc.parser.ValueSlot;");
+    }
     printer.indent().pln("import xtc.parser.ParseError;");
     printer.pln();
 
@@ -1297,6 +1339,19 @@ public class CodeGenerator extends Visitor {
       }
     }
 
+    // Emit reused semantic value fields.
+    if (hasSlots) {
+      printer.sep().pln();
+      printer.indent().pln("// The reused semantic values of transient productions.");
+      for (Production p : m.productions) {
+        if (p.getBooleanProperty(Properties.SLOT)) {
+          printer.indent().p("private final ValueSlot ").p(slotName(p.name)).
+            pln(" = new ValueSlot();");
+        }
+      }
+      printer.pln();
+    }
+
     // Emit constructors.
     printer.sep().pln();
 
@@ -1309,6 +1364,7 @@ public class CodeGenerator extends Visitor {
     printer.indent().p("public ").p(className).
       pln("(final Reader reader, final String file) {").incr();
     printer.indent().pln("super(reader, file);");
+    emitMemoOptions();
     if (attributeStateful) {
       printer.indent().p(STATE).p(" = new ").p(stateClassName).pln("();");
     }
@@ -1328,6 +1384,26 @@ public class CodeGenerator extends Visitor {
     printer.indent().p("public ").p(className).
       pln("(final Reader reader, final String file, final int size) {").incr();
     printer.indent().pln("super(reader, file, size);");
+    emitMemoOptions();
+    if (attributeStateful) {
+      printer.indent().p(STATE).p(" = new ").p(stateClassName).pln("();");
+    }
+    if (isVerbose) {
+      printer.indent().p(PRINTER).pln(" = new Printer(System.out);");
+    }
+    printer.decr().indent().pln('}');
+    printer.pln();
+
+    printer.indent().pln("/**");
+    printer.indent().pln(" * Create a new packrat parser.");
+    printer.indent().pln(" *");
+    printer.indent().pln(" * @param input The characters.");
+    printer.indent().pln(" * @param file The file name.");
+    printer.indent().pln(" */");
+    printer.indent().p("public ").p(className).
+      pln("(final CharSequence input, final String file) {").incr();
+    printer.indent().pln("super(input, file);");
+    emitMemoOptions();
     if (attributeStateful) {
       printer.indent().p(STATE).p(" = new ").p(stateClassName).pln("();");
     }
@@ -1686,8 +1762,8 @@ public class CodeGenerator extends Visitor {
       if (p.hasAttribute(Constants.ATT_RESETTING)) {
         printer.pln();
         printer.indent().pln("// Reset the global state object.");
-        printer.indent().p(STATE).p(".reset(column(").p(ARG_INDEX).
-          pln(").file);");
+        printer.indent().p(STATE).p(".reset(fileAt(").p(ARG_INDEX).
+          pln("));");
       }
 
       if (p.hasAttribute(Constants.ATT_STATEFUL)) {
@@ -2103,7 +2179,19 @@ public class CodeGenerator extends Visitor {
         pln(");");
     }
 
-    if (useBaseIndex) {
+    final Production p = analyzer.current();
+    if (p.getBooleanProperty(Properties.SLOT)) {
+      // Update the production's value slot.  Void productions only
+      // need the index and parse error.
+      final String index = useBaseIndex? baseIndex : RESULT + ".index";
+
+      printer.indent().p("return ").p(slotName(p.name)).p(".set(");
+      if (! AST.isVoid(p.type)) printer.p(VALUE).p(", ");
+      printer.p(index).p(", ").p(PARSE_ERROR).pln(");");
+
+      useBaseIndex = false;
+
+    } else if (useBaseIndex) {
       printer.indent().p("return new SemanticValue(").p(VALUE).
         p(", ").p(baseIndex).p(", ").p(PARSE_ERROR).pln(");");
 
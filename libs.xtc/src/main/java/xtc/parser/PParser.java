@@ -128,6 +128,17 @@ public final class PParser extends ParserBase {
     yyState = new PParserState();
   }
 
+  /**
+   * Create a new packrat parser.
+   *
+   * @param input The characters.
+   * @param file The file name.
+   */
+  public PParser(final CharSequence input, final String file) {
+    super(input, file);
+    yyState = new PParserState();
+  }
+
   // =========================================================================
 
   protected Column newColumn() {
@@ -154,7 +165,7 @@ public final class PParser extends ParserBase {
     ParseError   yyError = ParseError.DUMMY;
 
     // Reset the global state object.
-    yyState.reset(column(yyStart).file);
+    yyState.reset(fileAt(yyStart));
 
     // Alternative 1.
 
@@ -75,12 +75,74 @@ public abstract class ParserBase {
   /** The flag for whether the end-of-file has been reached. */
   protected boolean     yyEOF;
 
+  /**
+   * The flag for whether to fill the characters from the reader in
+   * bulk, i.e., possibly reading ahead of the characters actually
+   * parsed.
+   */
+  protected boolean     yyBulk;
+
   /** The characters consumed so far. */
   protected char[]      yyData;
 
-  /** The memoization table columns. */
+  /**
+   * The memoization table columns, or <code>null</code> if they are
+   * kept in a {@link #setMemoSparse sparse table}.
+   */
   protected Column[]    yyColumns;
 
+  /** The sparse memoization table, or <code>null</code> if none. */
+  private ColumnTable   yyTable;
+
+  /**
+   * The number of characters behind the furthest column for which
+   * memoized results are kept, or 0 to keep all of them.
+   */
+  private int           yyWindow;
+
+  /** The furthest index a column has been requested for. */
+  private int           yyFurthest;
+
+  /** The index up to which memoized results have been released. */
+  private int           yyReleased;
+
+  /**
+   * The start indices of the lines after the first one, in ascending
+   * order, as far as the characters have been scanned.
+   */
+  private int[]         yyLines;
+
+  /** The number of line start indices. */
+  private int           yyLineCount;
+
+  /** The number of characters scanned for line terminators. */
+  private int           yyScanned;
+
+  /**
+   * The flag for whether the character before index 0 is a carriage
+   * return, which is only the case after {@link #resetTo}.
+   */
+  private boolean       yyStartCR;
+
+  /**
+   * The indices of the location markers in ascending order, with the
+   * first one always being 0.  A marker sets the file, line, and
+   * column for its index, later locations are counted from it.
+   */
+  private int[]         yyMarkIndices;
+
+  /** The files of the location markers. */
+  private String[]      yyMarkFiles;
+
+  /** The lines of the location markers. */
+  private int[]         yyMarkLines;
+
+  /** The columns of the location markers. */
+  private int[]         yyMarkColumns;
+
+  /** The number of location markers. */
+  private int           yyMarkCount;
+
   // -------------------------------------------------------------------------
 
   /**
@@ -113,16 +175,155 @@ public abstract class ParserBase {
     yyReader     = reader;
     yyCount      = 0;
     yyEOF        = false;
+    yyBulk       = true;
+    yyData       = new char[size + 1];
+    yyColumns    = new Column[size + 1];
+
+    init(file);
+  }
+
+  /**
+   * Create a new parser base for the characters of the specified
+   * sequence, which are copied up front.
+   *
+   * @param input The character sequence to be parsed.
+   * @param file The name of the file backing the character sequence.
+   * @throws NullPointerException Signals a null file name.
+   */
+  public ParserBase(final CharSequence input, final String file) {
+    if (null == file) {
+      throw new NullPointerException("Null file");
+    }
+
+    final int size = input.length();
+
+    yyReader     = null;
     yyData       = new char[size + 1];
     yyColumns    = new Column[size + 1];
+    if (input instanceof String) {
+      ((String)input).getChars(0, size, yyData, 0);
+    } else {
+      for (int i=0; i<size; i++) yyData[i] = input.charAt(i);
+    }
+
+    fill(size, file);
+  }
+
+  /**
+   * Create a new parser base for the specified characters, which are
+   * copied up front.
+   *
+   * @param input The characters to be parsed.
+   * @param offset The offset of the first character.
+   * @param length The number of characters.
+   * @param file The name of the file backing the characters.
+   * @throws NullPointerException Signals a null file name.
+   * @throws IndexOutOfBoundsException Signals an invalid offset or
+   *   length.
+   */
+  public ParserBase(final char[] input, final int offset, final int length,
+                    final String file) {
+    if (null == file) {
+      throw new NullPointerException("Null file");
+    }
 
-    Column c     = newColumn();
-    c.file       = file;
-    c.seenCR     = false;
-    c.line       = FIRST_LINE;
-    c.column     = FIRST_COLUMN;
+    yyReader     = null;
+    yyData       = new char[length + 1];
+    yyColumns    = new Column[length + 1];
+    System.arraycopy(input, offset, yyData, 0, length);
 
-    yyColumns[0] = c;
+    fill(length, file);
+  }
+
+  /**
+   * Mark the specified number of characters in the data array as
+   * consumed, followed by the end-of-file.
+   *
+   * @param size The number of characters.
+   * @param file The file name.
+   */
+  private void fill(final int size, final String file) {
+    yyCount      = size + 1;
+    yyEOF        = true;
+    yyBulk       = true;
+
+    init(file);
+  }
+
+  /**
+   * Initialize the location information.
+   *
+   * @param file The file name.
+   */
+  private void init(final String file) {
+    yyLines       = new int[64];
+    yyMarkIndices = new int[4];
+    yyMarkFiles   = new String[4];
+    yyMarkLines   = new int[4];
+    yyMarkColumns = new int[4];
+
+    mark(0, file, FIRST_LINE, FIRST_COLUMN);
+  }
+
+  /**
+   * Set whether to fill the characters from the reader in bulk.  Bulk
+   * reading is the default, but it should be turned off for readers
+   * whose consumed characters are observed by the caller, such as an
+   * incremental lexer's input, since the parser then may read
+   * characters beyond those it actually parses.
+   *
+   * @param bulk The flag for reading in bulk.
+   */
+  public final void setBulkRead(final boolean bulk) {
+    yyBulk = bulk;
+  }
+
+  /**
+   * Set the memoization window.  Memoized results for indices more
+   * than the specified number of characters behind the furthest
+   * column accessed so far are released.  A parser backtracking
+   * behind the window is still correct, but will have to parse again.
+   * The table's memory is thus proportional to the window instead of
+   * the input's length, which is best combined with a {@link
+   * #setMemoSparse sparse table}.
+   *
+   * @param window The window size or 0 to keep all memoized results.
+   * @throws IllegalArgumentException Signals a negative size.
+   */
+  public final void setMemoWindow(final int window) {
+    if (0 > window) {
+      throw new IllegalArgumentException("Negative window: " + window);
+    }
+    yyWindow = window;
+  }
+
+  /**
+   * Set whether to keep the memoization table's columns in a hash
+   * table, which has entries only for the indices whose columns have
+   * been created, instead of an array parallel to the input.  This
+   * method must be called before parsing.
+   *
+   * @param sparse The flag for a sparse table.
+   * @throws IllegalStateException Signals that parsing has started.
+   */
+  public final void setMemoSparse(final boolean sparse) {
+    if (0 < yyFurthest) {
+      throw new IllegalStateException("Parsing has started");
+    } else if (sparse == (null != yyTable)) {
+      return;
+    }
+
+    if (sparse) {
+      yyTable = new ColumnTable();
+      for (int i=0; i<yyColumns.length; i++) {
+        if (null != yyColumns[i]) yyTable.put(i, yyColumns[i]);
+      }
+      yyColumns = null;
+    } else {
+      yyColumns = new Column[yyData.length];
+      yyTable.copyTo(yyColumns);
+      yyTable = null;
+    }
   }
 
   // -------------------------------------------------------------------------
@@ -151,18 +352,12 @@ public abstract class ParserBase {
       throw new IndexOutOfBoundsException("Parser index: " + index);
     }
 
-    // Get the column at the specified index (to make sure we have the
-    // corresponding location information) and construct its
-    // replacement.
-    Column c1 = column(index);
-    Column c2 = newColumn();
-
-    c2.file   = c1.file;
-    c2.seenCR = c1.seenCR;
-    c2.line   = c1.line;
-    c2.column = c1.column;
-
-    yyColumns[0] = c2;
+    // Get the location at the specified index, which becomes the
+    // location of the first index.
+    final String  file   = fileAt(index);
+    final int     line   = lineOf(index);
+    final int     column = columnOf(index);
+    final boolean seenCR = seenCR(index);
 
     // Next, shift any read-in characters.
     final int length = yyCount - index;
@@ -173,9 +368,22 @@ public abstract class ParserBase {
     for (int i=length; i<yyCount; i++) {
       yyData[i] = 0;
     }
-    for (int i=1; i<yyCount; i++) {
-      yyColumns[i] = null;
+    if (null == yyTable) {
+      for (int i=0; i<yyCount; i++) {
+        yyColumns[i] = null;
+      }
+    } else {
+      yyTable.clear();
     }
+    yyFurthest  = 0;
+    yyReleased  = 0;
+
+    // Next, restart the location information.
+    yyLineCount = 0;
+    yyScanned   = 0;
+    yyStartCR   = seenCR;
+    yyMarkCount = 0;
+    mark(0, file, line, column);
 
     // Finally, fix the count.
     yyCount = length;
@@ -185,6 +393,18 @@ public abstract class ParserBase {
 
   // -------------------------------------------------------------------------
 
+  /**
+   * Grow the memoization table for at least the specified index.  The
+   * table grows by its current length, but by no less than {@link
+   * #INCR_SIZE}, to avoid repeated copies for large inputs.
+   *
+   * @param index The index.
+   */
+  private void growFor(final int index) {
+    growBy(Math.max(Math.max(INCR_SIZE, yyData.length),
+                    index + 1 - yyData.length));
+  }
+
   /**
    * Grow the memoization table by the specified increment.
    *
@@ -195,9 +415,59 @@ public abstract class ParserBase {
     yyData              = new char[oldValues.length + incr];
     System.arraycopy(oldValues, 0, yyData, 0, oldValues.length);
 
-    Column[] oldColumns = yyColumns;
-    yyColumns           = new Column[oldColumns.length + incr];
-    System.arraycopy(oldColumns, 0, yyColumns, 0, oldColumns.length);
+    if (null != yyColumns) {
+      Column[] oldColumns = yyColumns;
+      yyColumns           = new Column[oldColumns.length + incr];
+      System.arraycopy(oldColumns, 0, yyColumns, 0, oldColumns.length);
+    }
+  }
+
+  /**
+   * Get the column at the specified index without creating it.
+   *
+   * @param index The index.
+   * @return The column or <code>null</code> if it has not been
+   *   created or has been released.
+   * @throws IndexOutOfBoundsException Signals an invalid index.
+   */
+  protected final Column memoized(final int index) {
+    if (null == yyTable) {
+      return yyColumns[index];
+    } else if (0 > index || yyData.length <= index) {
+      throw new IndexOutOfBoundsException("Parser index: " + index);
+    } else {
+      return yyTable.get(index);
+    }
+  }
+
+  /**
+   * Put the column at the specified index.
+   *
+   * @param index The index.
+   * @param c The column.
+   */
+  private void put(final int index, final Column c) {
+    if (null == yyTable) {
+      yyColumns[index] = c;
+    } else {
+      yyTable.put(index, c);
+    }
+  }
+
+  /**
+   * Release the memoized results before the specified index.
+   *
+   * @param index The index.
+   */
+  private void release(final int index) {
+    if (null == yyTable) {
+      for (int i=yyReleased; i<index; i++) {
+        yyColumns[i] = null;
+      }
+    } else {
+      yyTable.removeRange(yyReleased, index);
+    }
+    yyReleased = index;
   }
 
   // -------------------------------------------------------------------------
@@ -223,59 +493,200 @@ public abstract class ParserBase {
     // A memoized production may try to access the entry just past the
     // current end of the table before the corresponding character has
     // been read.  Hence, we may need to grow the table.
-    if (yyColumns.length == index) growBy(INCR_SIZE);
+    if (yyData.length == index) growFor(index);
+
+    // Slide the memoization window.
+    if (yyFurthest < index) {
+      yyFurthest = index;
+      if ((0 < yyWindow) && (2 * yyWindow <= index - yyReleased)) {
+        release(index - yyWindow);
+      }
+    }
 
-    // Note that the array access below will generate an index out of
+    // Note that the access below will generate an index out of
     // bounds exception for invalid indices.
-    Column c = yyColumns[index];
-    if (null != c) return c;
+    Column c = memoized(index);
+    if (null == c) {
+      c = newColumn();
+      put(index, c);
+    }
+    return c;
+  }
+
+  // -------------------------------------------------------------------------
+
+  /**
+   * Determine whether the character before the specified index is a
+   * carriage return.
+   *
+   * @param index The index.
+   * @return <code>true</code> if it is.
+   */
+  private boolean seenCR(final int index) {
+    return (0 == index)? yyStartCR : '\r' == yyData[index - 1];
+  }
+
+  /**
+   * Scan the characters before the specified index for line starts,
+   * as far as they have been read.  A line starts after a carriage
+   * return and after a newline that does not follow a carriage return.
+   *
+   * @param index The index.
+   */
+  private void scanLines(final int index) {
+    final int limit = Math.min(index, yyEOF? yyCount - 1 : yyCount);
+
+    for (int i=yyScanned; i<limit; i++) {
+      final char c = yyData[i];
+      if (('\r' == c) || (('\n' == c) && (! seenCR(i)))) {
+        if (yyLines.length == yyLineCount) {
+          final int[] old = yyLines;
+          yyLines         = new int[old.length * 2];
+          System.arraycopy(old, 0, yyLines, 0, yyLineCount);
+        }
+        yyLines[yyLineCount++] = i + 1;
+      }
+    }
+    if (yyScanned < limit) yyScanned = limit;
+  }
+
+  /**
+   * Get the number of lines starting at or before the specified index,
+   * not counting the first line.
+   *
+   * @param index The index, whose characters before must have been
+   *   scanned.
+   * @return The number of line starts.
+   */
+  private int linesUpTo(final int index) {
+    int lo = 0;
+    int hi = yyLineCount;
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (yyLines[mid] <= index) lo = mid + 1; else hi = mid;
+    }
+    return lo;
+  }
 
-    // Find the last non-null column.
-    Column last = null;
-    int    start;
-    for (start=index; start>=0; start--) {
-      last = yyColumns[start];
-      if (null != last) break;
+  /**
+   * Get the last location marker at or before the specified index.
+   *
+   * @param index The index.
+   * @return The marker's number.
+   */
+  private int marker(final int index) {
+    int lo = 1;
+    int hi = yyMarkCount;
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (yyMarkIndices[mid] <= index) lo = mid + 1; else hi = mid;
+    }
+    return lo - 1;
+  }
+
+  /**
+   * Add a location marker, replacing the last one if it has the same
+   * index.
+   *
+   * @param index The index, which must not be before the last marker.
+   * @param file The file.
+   * @param line The line.
+   * @param column The column.
+   */
+  private void mark(final int index, final String file, final int line,
+                    final int column) {
+    int m = yyMarkCount;
+    if ((0 < m) && (yyMarkIndices[m - 1] == index)) {
+      m--;
+    } else {
+      if (yyMarkIndices.length == m) {
+        final int size = m * 2;
+        int[]    indices = new int[size];
+        String[] files   = new String[size];
+        int[]    lines   = new int[size];
+        int[]    columns = new int[size];
+        System.arraycopy(yyMarkIndices, 0, indices, 0, m);
+        System.arraycopy(yyMarkFiles, 0, files, 0, m);
+        System.arraycopy(yyMarkLines, 0, lines, 0, m);
+        System.arraycopy(yyMarkColumns, 0, columns, 0, m);
+        yyMarkIndices = indices;
+        yyMarkFiles   = files;
+        yyMarkLines   = lines;
+        yyMarkColumns = columns;
+      }
+      yyMarkCount++;
     }
 
-    // Now, carry the location information forward.
-    int     line   = last.line;
-    int     column = last.column;
-    boolean seenCR = last.seenCR;
+    yyMarkIndices[m] = index;
+    yyMarkFiles[m]   = file;
+    yyMarkLines[m]   = line;
+    yyMarkColumns[m] = column;
+  }
+
+  /**
+   * Get the file name at the specified index.
+   *
+   * @param index The index.
+   * @return The file name.
+   */
+  protected final String fileAt(final int index) {
+    return yyMarkFiles[marker(index)];
+  }
+
+  /**
+   * Get the line number at the specified index.
+   *
+   * @param index The index.
+   * @return The line number.
+   */
+  private int lineOf(final int index) {
+    final int m = marker(index);
+
+    scanLines(index);
+    return yyMarkLines[m] + linesUpTo(index) - linesUpTo(yyMarkIndices[m]);
+  }
 
-    for (int i=start; i<index; i++) {
+  /**
+   * Get the column number at the specified index.  Only the characters
+   * from the start of the line, or from the last location marker if it
+   * is on the same line, are examined.
+   *
+   * @param index The index.
+   * @return The column number.
+   */
+  private int columnOf(final int index) {
+    final int m     = marker(index);
+    final int mark  = yyMarkIndices[m];
+
+    scanLines(index);
+    final int lines = linesUpTo(index);
+
+    int start;
+    int column;
+    if (linesUpTo(mark) < lines) {
+      start  = yyLines[lines - 1];
+      column = FIRST_COLUMN;
+    } else {
+      start  = mark;
+      column = yyMarkColumns[m];
+    }
+
+    // A newline after the start only follows a carriage return and
+    // leaves the column unchanged.
+    final int limit = Math.min(index, yyScanned);
+    for (int i=start; i<limit; i++) {
       switch (yyData[i]) {
       case '\t':
         column = ((column >> 3) + 1) << 3;
-        seenCR = false;
         break;
       case '\n':
-        if (! seenCR) {
-          line++;
-          column = FIRST_COLUMN;
-        }
-        seenCR = false;
-        break;
-      case '\r':
-        line++;
-        column = FIRST_COLUMN;
-        seenCR = true;
         break;
       default:
         column++;
-        seenCR = false;
       }
     }
 
-    // Create the new column.
-    c                = newColumn();
-    c.file           = last.file;
-    c.seenCR         = seenCR;
-    c.line           = line;
-    c.column         = column;
-    yyColumns[index] = c;
-
-    return c;
+    return column;
   }
 
   // -------------------------------------------------------------------------
@@ -308,13 +719,32 @@ public abstract class ParserBase {
       throw new IndexOutOfBoundsException("Parser index: " + index);
     }
 
+    // Read more characters in bulk.
+    if (yyBulk) {
+      if (yyData.length <= yyCount) {
+        growFor(yyCount);
+      }
+
+      final int n = yyReader.read(yyData, yyCount, yyData.length - yyCount);
+      if (0 < n) {
+        yyCount += n;
+        return yyData[index];
+      }
+
+      // The reader got no characters, fall through to read one at a
+      // time, which blocks or signals the end-of-file.
+    }
+
     // Read another character.
     final int c    = yyReader.read();
-    final int incr = (-1 == c)? 1 : INCR_SIZE;
 
     // Do we have enough space?
     if (yyData.length <= yyCount) {
-      growBy(incr);
+      if (-1 == c) {
+        growBy(1);
+      } else {
+        growFor(yyCount);
+      }
     }
 
     if (-1 == c) {
@@ -409,9 +839,8 @@ public abstract class ParserBase {
    * @return The corresponding location.
    */
   public final Location location(final int index) {
-    final Column c = column(index);
-
-    return new Location(c.file, c.line, c.column, index, yyCount - 1);
+    return new Location(fileAt(index), lineOf(index), columnOf(index),
+                        index, yyCount - 1);
   }
 
   /**
@@ -457,9 +886,9 @@ public abstract class ParserBase {
     }
 
     // Detect repeated calls for the same location.
-    Column c = yyColumns[index];
-    if (null != c) {
-      if (file.equals(c.file) && line == c.line && column == c.column) {
+    if (null != memoized(index)) {
+      if (file.equals(fileAt(index)) && line == lineOf(index) &&
+          column == columnOf(index)) {
         // We ignore repeated calls for the same index and location.
         return;
       } else if (0 != index) {
@@ -471,19 +900,20 @@ public abstract class ParserBase {
 
     // Check that no further columns have been allocated.
     for (int i=index+1; i<yyCount; i++) {
-      if (null != yyColumns[i]) {
+      if (null != memoized(i)) {
         throw new IllegalStateException("Location at index " + index +
                                         " is already committed");
       }
     }
 
-    // Actually update the internal location.  Note that we call
-    // column() instead of allocating the column directly to correctly
-    // carry forward the seenCR flag.
-    c        = column(index);
-    c.file   = file;
-    c.line   = line;
-    c.column = column;
+    // Check that no later location has been set.
+    if (yyMarkIndices[yyMarkCount - 1] > index) {
+      throw new IllegalStateException("Location at index " + index +
+                                      " is already committed");
+    }
+
+    // Actually update the internal location.
+    mark(index, file, line, column);
   }
   
   /**
@@ -499,8 +929,7 @@ public abstract class ParserBase {
    */
   public final void setLocation(final Locatable locatable, final int index) {
     if ((null != locatable) && (! locatable.hasLocation())) {
-      Column c = column(index);
-      locatable.setLocation(new Location(c.file, c.line, c.column, index, yyCount - 1));
+      locatable.setLocation(location(index));
     }
   }
 
@@ -571,14 +1000,14 @@ public abstract class ParserBase {
     final StringBuilder buf = new StringBuilder();
 
     // The error's location.
-    Column c = null;
+    int column = FIRST_COLUMN;
     if (-1 != error.index) {
-      c = column(error.index);
-      buf.append(c.file);
+      column = columnOf(error.index);
+      buf.append(fileAt(error.index));
       buf.append(':');
-      buf.append(c.line);
+      buf.append(lineOf(error.index));
       buf.append(':');
-      buf.append(c.column);
+      buf.append(column);
       buf.append(": ");
     }
 
@@ -594,7 +1023,7 @@ public abstract class ParserBase {
       buf.append(NEWLINE);
       for (int i=0; i<size; i++) buf.append(line.charAt(i));
       buf.append(NEWLINE);
-      for (int i=FIRST_COLUMN; i<c.column; i++) buf.append(' ');
+      for (int i=FIRST_COLUMN; i<column; i++) buf.append(' ');
       buf.append('^');
       buf.append(NEWLINE);
     }
@@ -677,4 +1106,116 @@ public abstract class ParserBase {
     return (Pair<T>)p;
   }
 
+  // -------------------------------------------------------------------------
+
+  /**
+   * A hash table from indices to columns, using open addressing with
+   * linear probing.
+   */
+  private static final class ColumnTable {
+
+    /** The marker for empty slots. */
+    private static final int EMPTY = -1;
+
+    /** The keys. */
+    private int[]    keys;
+
+    /** The columns. */
+    private Column[] values;
+
+    /** The number of entries. */
+    private int      size;
+
+    /** Create a new column table. */
+    ColumnTable() {
+      allocate(64);
+    }
+
+    /**
+     * Allocate empty slots.
+     *
+     * @param capacity The number of slots, which must be a power of two.
+     */
+    private void allocate(final int capacity) {
+      keys   = new int[capacity];
+      values = new Column[capacity];
+      size   = 0;
+      java.util.Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Get the slot for the specified index.
+     *
+     * @param index The index.
+     * @return The slot holding the index or the empty slot to hold it.
+     */
+    private int slot(final int index) {
+      final int mask = keys.length - 1;
+      int       i    = (index * 0x9E3779B9) >>> 7 & mask;
+      while ((EMPTY != keys[i]) && (index != keys[i])) {
+        i = (i + 1) & mask;
+      }
+      return i;
+    }
+
+    Column get(final int index) {
+      return values[slot(index)];
+    }
+
+    void put(final int index, final Column c) {
+      int i = slot(index);
+      if (EMPTY == keys[i]) {
+        if (keys.length <= 2 * (size + 1)) {
+          rehash(keys.length * 2, 0, 0);
+          i = slot(index);
+        }
+        keys[i] = index;
+        size++;
+      }
+      values[i] = c;
+    }
+
+    /**
+     * Remove the entries for the indices in the specified range.
+     *
+     * @param from The first index, inclusive.
+     * @param to The last index, exclusive.
+     */
+    void removeRange(final int from, final int to) {
+      if (from < to) {
+        int capacity = keys.length;
+        while ((64 < capacity) && (8 * size < capacity)) capacity >>= 1;
+        rehash(capacity, from, to);
+      }
+    }
+
+    /**
+     * Rehash into the specified number of slots, dropping the entries
+     * for the indices in the specified range.
+     */
+    private void rehash(final int capacity, final int from, final int to) {
+      final int[]    oldKeys   = keys;
+      final Column[] oldValues = values;
+
+      allocate(capacity);
+      for (int i=0; i<oldKeys.length; i++) {
+        final int index = oldKeys[i];
+        if ((EMPTY != index) && ((index < from) || (to <= index))) {
+          put(index, oldValues[i]);
+        }
+      }
+    }
+
+    void clear() {
+      allocate(64);
+    }
+
+    void copyTo(final Column[] columns) {
+      for (int i=0; i<keys.length; i++) {
+        if (EMPTY != keys[i]) columns[keys[i]] = values[i];
+      }
+    }
+
+  }
+
 }
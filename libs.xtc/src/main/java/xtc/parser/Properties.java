@@ -149,6 +149,13 @@ public class Properties {
    */
   public static final String ROOT = "root";
 
+  /**
+   * The slot property.  It is associated with productions, has a
+   * boolean value, and indicates whether a production returns its
+   * semantic values in a reused {@link ValueSlot value slot}.
+   */
+  public static final String SLOT = "slot";
+
   /**
    * The split property.  It is associated with productions, has a
    * boolean value, and indicates that the production's alternatives
@@ -93,6 +93,14 @@ public class Rats extends Tool {
            "Print a formal definition of the grammar's AST, then stop.").
       bool("lgpl", "optionLGPL", false,
            "Create an LGPL compliant parser.").
+      number("memoWindow", "memoWindow", 0,
+             "Release memoized results behind the specified number of " +
+             "characters before the furthest parsed index (0 for none).").
+      bool("memoSparse", "memoSparse", false,
+           "Keep the memoization table in a hash table instead of an array.").
+      bool("valueSlots", "valueSlots", false,
+           "Reuse one semantic value per transient production instead of " +
+           "creating a new one for each result.").
       att("option", "grammarOption", true,
           "Add the specified attribute to the grammar's options.").
       bool("Onone", "doNotOptimize", false,
@@ -414,6 +422,9 @@ public class Rats extends Tool {
     }
     new MetaDataSetter(runtime, ana, ast).dispatch(module);
     if (0 < runtime.errorCount()) return;
+    if (runtime.test("valueSlots")) {
+      new SlotMarker(runtime, ana).dispatch(module);
+    }
 
     // --------------------------------------------------------------------
     //              Print AST definition and processed grammar
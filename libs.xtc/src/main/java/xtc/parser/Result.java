@@ -26,8 +26,11 @@ package xtc.parser;
  */
 public abstract class Result {
 
-  /** The index into the parser's memoization table. */
-  public final int index;
+  /**
+   * The index into the parser's memoization table.  It is only
+   * changed by {@link ValueSlot value slots}, which are reused.
+   */
+  public int index;
 
   /**
    * Create a new result with the specified index.
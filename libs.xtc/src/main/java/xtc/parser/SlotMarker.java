@@ -0,0 +1,105 @@
+/*
+ * xtc - The eXTensible Compiler
+ * Copyright (C) 2009 Robert Grimm
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * version 2.1 as published by the Free Software Foundation.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301,
+ * USA.
+ */
+package xtc.parser;
+
+import xtc.Constants;
+
+import xtc.util.Runtime;
+
+/**
+ * Visitor to detect productions that can return their semantic values
+ * in a reused {@link ValueSlot value slot}.
+ *
+ * <p />A production qualifies if it is neither memoized nor public,
+ * as its results then never outlive the caller's next parse.  The
+ * one exception are predicates: code following a predicate still
+ * reads the result from before the predicate, so productions
+ * reachable from a predicate are not marked.
+ *
+ * <p />Note that this visitor assumes that the entire grammar is
+ * contained in a single module.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class SlotMarker extends GrammarVisitor {
+
+  /**
+   * Flag for whether the current production is reachable from a
+   * predicate.
+   */
+  protected boolean isReachable;
+
+  /**
+   * Create a new slot marker.
+   *
+   * @param runtime The runtime.
+   * @param analyzer The analyzer utility.
+   */
+  public SlotMarker(Runtime runtime, Analyzer analyzer) {
+    super(runtime, analyzer);
+  }
+
+  /** Visit the specified grammar. */
+  public Object visit(Module m) {
+    // Initialize the per-grammar state.
+    analyzer.register(this);
+    analyzer.init(m);
+    isReachable = false;
+
+    // Mark all productions reachable from predicates.
+    for (Production p : m.productions) analyzer.process(p);
+
+    // Flag the remaining transient productions.
+    final boolean transients = runtime.test("optimizeTransient");
+    for (Production p : m.productions) {
+      if (transients &&
+          (! p.isMemoized()) &&
+          (! p.hasAttribute(Constants.ATT_PUBLIC)) &&
+          (! analyzer.isMarked(p.qName))) {
+        if (runtime.test("optionVerbose")) {
+          System.err.println("[Reusing values of " + p.qName + "]");
+        }
+        p.setProperty(Properties.SLOT, Boolean.TRUE);
+      }
+    }
+
+    // Done.
+    return null;
+  }
+
+  /** Visit the specified nonterminal. */
+  public Element visit(NonTerminal nt) {
+    if (isPredicate || isReachable) {
+      FullProduction p = analyzer.lookup(nt);
+
+      if (! analyzer.isMarked(p.qName)) {
+        final boolean pred      = isPredicate;
+        final boolean reachable = isReachable;
+
+        analyzer.mark(p.qName);
+        isReachable = true;
+        dispatch(p);
+        isReachable = reachable;
+        isPredicate = pred;
+      }
+    }
+    return nt;
+  }
+
+}
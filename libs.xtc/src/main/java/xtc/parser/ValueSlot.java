@@ -0,0 +1,113 @@
+/*
+ * xtc - The eXTensible Compiler
+ * Copyright (C) 2009 Robert Grimm
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * version 2.1 as published by the Free Software Foundation.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301,
+ * USA.
+ */
+package xtc.parser;
+
+/**
+ * A reused semantic value.  A parser returns the same value slot for
+ * all successful parses of a production {@link SlotMarker marked} as
+ * returning its values in a slot, updating the slot in place instead
+ * of creating a new semantic value.  Callers must therefore read a
+ * slot's value, index, and embedded parse error before parsing the
+ * production again; {@link #createValue(Object,ParseError)} copies a
+ * slot into a new semantic value.
+ *
+ * @version $Revision: 1.1 $
+ */
+public final class ValueSlot extends Result {
+
+  /** The actual value. */
+  public Object value;
+
+  /** The embedded parse error. */
+  public ParseError error;
+
+  /** Create a new value slot. */
+  public ValueSlot() {
+    super(-1);
+    error = ParseError.DUMMY;
+  }
+
+  /**
+   * Update this value slot.
+   *
+   * @param value The value.
+   * @param index The index into the rest of the input.
+   * @param error The embedded parse error.
+   * @return This value slot.
+   */
+  public ValueSlot set(final Object value, final int index,
+                       final ParseError error) {
+    this.value = value;
+    this.index = index;
+    this.error = error;
+    return this;
+  }
+
+  /**
+   * Update this value slot for a void production, whose value is
+   * always <code>null</code>.
+   *
+   * @param index The index into the rest of the input.
+   * @param error The embedded parse error.
+   * @return This value slot.
+   */
+  public ValueSlot set(final int index, final ParseError error) {
+    this.value = null;
+    this.index = index;
+    this.error = error;
+    return this;
+  }
+
+  public boolean hasValue() {
+    return true;
+  }
+
+  public boolean hasValue(final String s) {
+    return s.equals(this.value);
+  }
+
+  public boolean hasValueIgnoreCase(final String s) {
+    return s.equalsIgnoreCase(this.value.toString());
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T semanticValue() {
+    return (T)value;
+  }
+
+  public ParseError parseError() {
+    return error;
+  }
+
+  public ParseError select(final ParseError error) {
+    return this.error.index <= error.index ? error : this.error;
+  }
+
+  public ParseError select(final ParseError error, final int index) {
+    return this.error.index <= index || this.error.index <= error.index ?
+      error : this.error;
+  }
+
+  public SemanticValue createValue(final Object value, final ParseError error) {
+    // Never hand out the slot itself, as it is overwritten by the next
+    // parse of its production.
+    return new SemanticValue(value, index, error);
+  }
+
+}
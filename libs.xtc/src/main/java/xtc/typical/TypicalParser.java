@@ -142,6 +142,16 @@ public final class TypicalParser extends ParserBase {
     super(reader, file, size);
   }
 
+  /**
+   * Create a new packrat parser.
+   *
+   * @param input The characters.
+   * @param file The file name.
+   */
+  public TypicalParser(final CharSequence input, final String file) {
+    super(input, file);
+  }
+
   // =========================================================================
 
   protected Column newColumn() {
@@ -33,8 +33,6 @@ import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 
-import java.io.StringReader;
-
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -456,8 +454,7 @@ public class Runtime {
             break;
 
           case ATTRIBUTE:
-            PParser parser = new PParser(new StringReader(args[index]),
-                                         "<console>", args[index].length());
+            PParser parser = new PParser(args[index], "<console>");
             Result  result = null;
             try {
               result       = parser.pAttribute(0);
@@ -0,0 +1,195 @@
+package xtc.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xtc.tree.Location;
+
+/**
+ * Tests of the memoization table and the location information of
+ * {@link ParserBase}.
+ */
+public class ParserBaseTest {
+
+  /** A column without memoized fields. */
+  private static final class TestColumn extends Column {
+  }
+
+  /** A parser base whose table is accessed directly. */
+  private static final class TestParser extends ParserBase {
+    TestParser(final CharSequence input) {
+      super(input, "test");
+    }
+
+    TestParser(final StringReader reader) {
+      super(reader, "test");
+    }
+
+    protected Column newColumn() {
+      return new TestColumn();
+    }
+
+    Column columnAt(final int index) {
+      return column(index);
+    }
+
+    Column memoizedAt(final int index) {
+      return memoized(index);
+    }
+
+    int read(final int index) throws IOException {
+      return character(index);
+    }
+
+    void mark(final int index, final String file, final int line,
+              final int column) {
+      setLocation(index, file, line, column);
+    }
+  }
+
+  private static void assertLocation(final String file, final int line,
+                                     final int column, final Location loc) {
+    Assert.assertEquals(file, loc.file);
+    Assert.assertEquals(line, loc.line);
+    Assert.assertEquals(column, loc.column);
+  }
+
+  @Test
+  public void testColumnsAreMemoized() {
+    TestParser parser = new TestParser("abcdef");
+    Assert.assertNull(parser.memoizedAt(3));
+    Column c = parser.columnAt(3);
+    Assert.assertSame(c, parser.memoizedAt(3));
+    Assert.assertSame(c, parser.columnAt(3));
+  }
+
+  @Test
+  public void testMemoWindowReleasesColumnsBehind() {
+    TestParser parser = new TestParser("abcdefghijklmnop");
+    parser.setMemoWindow(4);
+
+    Column[] columns = new Column[10];
+    for (int i=0; i<columns.length; i++) columns[i] = parser.columnAt(i);
+
+    // At index 8, the columns before 8 - 4 have been released.
+    for (int i=0; i<4; i++) Assert.assertNull(parser.memoizedAt(i));
+    for (int i=4; i<columns.length; i++) {
+      Assert.assertSame(columns[i], parser.memoizedAt(i));
+    }
+
+    // Backtracking behind the window creates a new column.
+    Column c = parser.columnAt(2);
+    Assert.assertNotSame(columns[2], c);
+    Assert.assertSame(c, parser.memoizedAt(2));
+  }
+
+  @Test
+  public void testNoMemoWindowKeepsAllColumns() {
+    TestParser parser = new TestParser("abcdefghijklmnop");
+    Column first = parser.columnAt(0);
+    for (int i=1; i<16; i++) parser.columnAt(i);
+    Assert.assertSame(first, parser.memoizedAt(0));
+  }
+
+  @Test
+  public void testSparseTable() {
+    TestParser parser = new TestParser("abcdefghijklmnop");
+    parser.setMemoSparse(true);
+
+    Column c = parser.columnAt(5);
+    Assert.assertNull(parser.memoizedAt(4));
+    Assert.assertSame(c, parser.memoizedAt(5));
+    Assert.assertSame(c, parser.columnAt(5));
+
+    // The column just past the end may be accessed before it is read.
+    Assert.assertNotNull(parser.columnAt(16));
+  }
+
+  @Test
+  public void testSparseTableWithMemoWindow() {
+    TestParser parser = new TestParser("abcdefghijklmnop");
+    parser.setMemoSparse(true);
+    parser.setMemoWindow(4);
+
+    Column first = parser.columnAt(0);
+    for (int i=1; i<10; i++) parser.columnAt(i);
+    Assert.assertNull(parser.memoizedAt(0));
+    Assert.assertNotNull(parser.memoizedAt(9));
+    Assert.assertNotSame(first, parser.columnAt(0));
+  }
+
+  @Test
+  public void testSparseTableKeepsCreatedColumns() {
+    TestParser parser = new TestParser("abcdef");
+    Column c = parser.columnAt(0);
+    parser.setMemoSparse(true);
+    Assert.assertSame(c, parser.memoizedAt(0));
+    parser.setMemoSparse(false);
+    Assert.assertSame(c, parser.memoizedAt(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSparseTableMustBeSetBeforeParsing() {
+    TestParser parser = new TestParser("abcdef");
+    parser.columnAt(3);
+    parser.setMemoSparse(true);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeMemoWindow() {
+    new TestParser("abcdef").setMemoWindow(-1);
+  }
+
+  @Test
+  public void testLocations() {
+    //                                 0 1 2  3 4 5  6  7 8 9  10 11 12
+    TestParser parser = new TestParser("ab\ncd\r\nef\rg\th");
+
+    assertLocation("test", 1, 1, parser.location(0));
+    assertLocation("test", 1, 2, parser.location(1));
+    assertLocation("test", 2, 1, parser.location(3));
+    assertLocation("test", 2, 3, parser.location(5));
+    // The newline after a carriage return does not start another line.
+    assertLocation("test", 3, 1, parser.location(7));
+    assertLocation("test", 3, 2, parser.location(8));
+    assertLocation("test", 4, 1, parser.location(10));
+    // A tab advances to the next multiple of 8.
+    assertLocation("test", 4, 8, parser.location(12));
+
+    Assert.assertEquals(12, parser.location(12).offset);
+  }
+
+  @Test
+  public void testLocationsOfReader() throws IOException {
+    TestParser parser = new TestParser(new StringReader("ab\ncd"));
+    int i = 0;
+    while (-1 != parser.read(i)) i++;
+
+    Assert.assertEquals(5, i);
+    assertLocation("test", 2, 2, parser.location(4));
+    assertLocation("test", 1, 2, parser.location(1));
+  }
+
+  @Test
+  public void testSetLocation() {
+    TestParser parser = new TestParser("ab\ncd\nef");
+    parser.mark(3, "other", 10, 1);
+
+    assertLocation("test", 1, 2, parser.location(1));
+    assertLocation("other", 10, 2, parser.location(4));
+    assertLocation("other", 11, 1, parser.location(6));
+  }
+
+  @Test
+  public void testResetToKeepsLocation() {
+    TestParser parser = new TestParser("ab\ncd\r\nef");
+    parser.resetTo(6);
+
+    assertLocation("test", 3, 1, parser.location(0));
+    assertLocation("test", 3, 1, parser.location(1));
+    assertLocation("test", 3, 2, parser.location(2));
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Scala sources the benchmarks run over, grouped by file size so
+ * that small, medium and large inputs are measured separately.
+ *
+ * The corpus directory is taken from the <code>scala.benchmarks.corpus</code>
+ * system property and defaults to the sources of the Scala editor module.
+ */
+final class Corpus {
+
+    static final String DIR_PROPERTY = "scala.benchmarks.corpus";
+    static final String DEFAULT_DIR = "../scala.editor/src/main/scala";
+
+    /** Files below this size are small */
+    static final int SMALL_LIMIT = 4 * 1024;
+    /** Files at or above this size are large */
+    static final int LARGE_LIMIT = 32 * 1024;
+
+    final String[] names;
+    final String[] texts;
+    /** Total size of the texts in KB */
+    final double kb;
+
+    private Corpus(List<File> files) throws IOException {
+        names = new String[files.size()];
+        texts = new String[files.size()];
+        long chars = 0;
+        for (int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            names[i] = file.getPath();
+            texts[i] = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            chars += texts[i].length();
+        }
+        kb = chars / 1024.0;
+    }
+
+    /**
+     * @param size one of "small", "medium", "large" or "all"
+     */
+    static Corpus load(String size) throws IOException {
+        File dir = new File(System.getProperty(DIR_PROPERTY, DEFAULT_DIR));
+        if (!dir.isDirectory()) {
+            throw new IOException("No corpus at " + dir.getAbsolutePath() + ", set -D" + DIR_PROPERTY);
+        }
+
+        List<File> files = new ArrayList<File>();
+        collect(dir, size, files);
+        if (files.isEmpty()) {
+            throw new IOException("No " + size + " Scala files under " + dir.getAbsolutePath());
+        }
+        // * keep the order stable between runs
+        Collections.sort(files);
+        return new Corpus(files);
+    }
+
+    private static void collect(File dir, String size, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collect(child, size, files);
+            } else if (child.getName().endsWith(".scala") && isOfSize(child.length(), size)) {
+                files.add(child);
+            }
+        }
+    }
+
+    private static boolean isOfSize(long length, String size) {
+        if ("small".equals(size)) {
+            return length < SMALL_LIMIT;
+        } else if ("medium".equals(size)) {
+            return length >= SMALL_LIMIT && length < LARGE_LIMIT;
+        } else if ("large".equals(size)) {
+            return length >= LARGE_LIMIT;
+        } else if ("all".equals(size)) {
+            return true;
+        } else {
+            throw new IllegalArgumentException("Unknown corpus size: " + size);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.modules.scala.core.rats.LexerScala;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xtc.parser.Result;
+
+/**
+ * Tokenizes each corpus file with one {@link LexerScala} by calling
+ * <code>pToken</code> until the end of input, without the NetBeans lexer
+ * in between.
+ *
+ * Run with <code>-prof gc</code> for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexerScalaBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private Corpus corpus;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        corpus = Corpus.load(size);
+    }
+
+    @Benchmark
+    public void pToken(Kilobytes counter, Blackhole bh) throws IOException {
+        for (int i = 0; i < corpus.texts.length; i++) {
+            tokenize(new LexerScala(corpus.texts[i], corpus.names[i]), bh);
+        }
+        counter.kb += corpus.kb;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public void memoFootprint(Footprint footprint, Blackhole bh) throws IOException {
+        for (int i = 0; i < corpus.texts.length; i++) {
+            LexerScala lexer = new LexerScala(corpus.texts[i], corpus.names[i]);
+            tokenize(lexer, bh);
+            footprint.add(lexer, corpus.texts[i].length());
+        }
+    }
+
+    private static void tokenize(LexerScala lexer, Blackhole bh) throws IOException {
+        int index = 0;
+        while (true) {
+            Result r = lexer.pToken(index);
+            // * the EOF token does not advance
+            if (!r.hasValue() || r.index == index) {
+                bh.consume(r);
+                return;
+            }
+            bh.consume(r.semanticValue());
+            index = r.index;
+        }
+    }
+}
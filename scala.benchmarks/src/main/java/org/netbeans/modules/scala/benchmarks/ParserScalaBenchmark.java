@@ -0,0 +1,121 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.modules.scala.core.rats.ParserScala;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses each corpus file with {@link ParserScala} from
+ * <code>CompilationUnit</code>, as the Rats! based parser does for the
+ * editor.
+ *
+ * The memoization table can be varied with, for example,
+ * <code>-p memoWindow=256 -p memoSparse=true</code>, and run with
+ * <code>-prof gc</code> for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserScalaBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    /** @see xtc.parser.ParserBase#setMemoWindow */
+    @Param({"0"})
+    public int memoWindow;
+
+    /** @see xtc.parser.ParserBase#setMemoSparse */
+    @Param({"false"})
+    public boolean memoSparse;
+
+    private Corpus corpus;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        corpus = Corpus.load(size);
+    }
+
+    @Benchmark
+    public void parse(Kilobytes counter, Blackhole bh) throws IOException {
+        for (int i = 0; i < corpus.texts.length; i++) {
+            bh.consume(newParser(i).pCompilationUnit(0));
+        }
+        counter.kb += corpus.kb;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public void memoFootprint(Footprint footprint, Blackhole bh) throws IOException {
+        for (int i = 0; i < corpus.texts.length; i++) {
+            ParserScala parser = newParser(i);
+            bh.consume(parser.pCompilationUnit(0));
+            footprint.add(parser, corpus.texts[i].length());
+        }
+    }
+
+    private ParserScala newParser(int i) {
+        ParserScala parser = new ParserScala(corpus.texts[i], corpus.names[i]);
+        parser.setMemoWindow(memoWindow);
+        parser.setMemoSparse(memoSparse);
+        return parser;
+    }
+}
@@ -2,7 +2,7 @@
 // This file has been generated by
 // Rats! Parser Generator, version 1.14.3,
 // (C) 2004-2009 Robert Grimm,
-// on Tuesday, October 20, 2009 at 10:24:01 PM.
+// on Saturday, October 17, 2026 at 4:36:46 AM.
 // Edit at your own risk.
 // ===========================================================================
 
@@ -23,6 +23,7 @@ import xtc.parser.ParserBase;
 import xtc.parser.Column;
 import xtc.parser.Result;
 import xtc.parser.SemanticValue;
+import xtc.parser.ValueSlot;
 import xtc.parser.ParseError;
 
 /**
@@ -53,6 +54,97 @@ public final class LexerScala extends ParserBase {
 
   // =========================================================================
 
+  // The reused semantic values of transient productions.
+  private final ValueSlot yySlotLexerScala$XmlElement = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlLt = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlGt = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlLtSlash = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlSlashGt = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlEq = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlEmptyElemTag = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlSTag = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlETag = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlAttribute = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlContent = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlEmptyTagName = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlSTagName = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlETagName = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlAttName = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlName = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlNameStartChar = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlNameChar = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlAttValue = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlAttValue = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlCharData = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlComment = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlComment = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlReference = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlCDSect = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlCDStart = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlCDEnd = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlCData = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlCDData = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlCDataChar = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$XmlPI = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlPIChar = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlPITarget = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlChar = new ValueSlot();
+  private final ValueSlot yySlotLexerScala$xmlWs = new ValueSlot();
+  private final ValueSlot yySlotxmlCharDataInScala = new ValueSlot();
+  private final ValueSlot yySlotxmlCharDataCharInScala = new ValueSlot();
+  private final ValueSlot yySlotScalaToken$$Choice1 = new ValueSlot();
+  private final ValueSlot yySlotTokenInBrace$$Choice1 = new ValueSlot();
+  private final ValueSlot yySlotXmlToken = new ValueSlot();
+  private final ValueSlot yySlotLiteral = new ValueSlot();
+  private final ValueSlot yySlotdecimalNumeral = new ValueSlot();
+  private final ValueSlot yySlothexNumeral = new ValueSlot();
+  private final ValueSlot yySlotoctalNumeral = new ValueSlot();
+  private final ValueSlot yySlotcharacterChar = new ValueSlot();
+  private final ValueSlot yySlotstringChar = new ValueSlot();
+  private final ValueSlot yySlotIdentifier = new ValueSlot();
+  private final ValueSlot yySlotvarIdentifier$$Choice2 = new ValueSlot();
+  private final ValueSlot yySlotvarIdentifier$$Choice1 = new ValueSlot();
+  private final ValueSlot yySlotupperIdentifier$$Choice2 = new ValueSlot();
+  private final ValueSlot yySlotupperIdentifier$$Choice1 = new ValueSlot();
+  private final ValueSlot yySlotidentifier = new ValueSlot();
+  private final ValueSlot yySlotKeyword = new ValueSlot();
+  private final ValueSlot yySlotIntegerLiteral = new ValueSlot();
+  private final ValueSlot yySlotintegerLiteral = new ValueSlot();
+  private final ValueSlot yySlotFloatingPointLiteral = new ValueSlot();
+  private final ValueSlot yySlotfloatingPointLiteral = new ValueSlot();
+  private final ValueSlot yySlotexponent = new ValueSlot();
+  private final ValueSlot yySlotCharacterLiteral = new ValueSlot();
+  private final ValueSlot yySlotcharacterLiteral = new ValueSlot();
+  private final ValueSlot yySlotStringLiteral = new ValueSlot();
+  private final ValueSlot yySlotstringLiteral = new ValueSlot();
+  private final ValueSlot yySlotmultiLineChar = new ValueSlot();
+  private final ValueSlot yySlotSymbolLiteral = new ValueSlot();
+  private final ValueSlot yySlotsymbolLiteral = new ValueSlot();
+  private final ValueSlot yySlotDocComment = new ValueSlot();
+  private final ValueSlot yySlotDocComment$$Choice1 = new ValueSlot();
+  private final ValueSlot yySlotDocCommentStart = new ValueSlot();
+  private final ValueSlot yySlotDocCommentEnd = new ValueSlot();
+  private final ValueSlot yySlotDocCommentData = new ValueSlot();
+  private final ValueSlot yySlotBlockComment = new ValueSlot();
+  private final ValueSlot yySlotBlockComment$$Choice1 = new ValueSlot();
+  private final ValueSlot yySlotBlockCommentStart = new ValueSlot();
+  private final ValueSlot yySlotBlockCommentEnd = new ValueSlot();
+  private final ValueSlot yySlotBlockCommentData = new ValueSlot();
+  private final ValueSlot yySlotblockedCommentData = new ValueSlot();
+  private final ValueSlot yySlotCommentTag = new ValueSlot();
+  private final ValueSlot yySlotcommentTag = new ValueSlot();
+  private final ValueSlot yySlotLineComment = new ValueSlot();
+  private final ValueSlot yySlotlineComment = new ValueSlot();
+  private final ValueSlot yySlotNl = new ValueSlot();
+  private final ValueSlot yySlotWs = new ValueSlot();
+  private final ValueSlot yySlotn = new ValueSlot();
+  private final ValueSlot yySlotw = new ValueSlot();
+  private final ValueSlot yySlotError = new ValueSlot();
+  private final ValueSlot yySloterror = new ValueSlot();
+  private final ValueSlot yySlotEOF = new ValueSlot();
+
+  // =========================================================================
+
   /**
    * Create a new packrat parser.
    *
@@ -74,6 +166,16 @@ public final class LexerScala extends ParserBase {
     super(reader, file, size);
   }
 
+  /**
+   * Create a new packrat parser.
+   *
+   * @param input The characters.
+   * @param file The file name.
+   */
+  public LexerScala(final CharSequence input, final String file) {
+    super(input, file);
+  }
+
   // =========================================================================
 
   protected Column newColumn() {
@@ -108,7 +210,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlElement", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlElement.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 2.
@@ -144,7 +246,7 @@ public final class LexerScala extends ParserBase {
           yyValue = GNode.create("XmlElement", v$g$3.size() + 2).
             add(v$g$2).addAll(v$g$3).add(v$g$4);
 
-          return yyResult.createValue(yyValue, yyError);
+          return yySlotLexerScala$XmlElement.set(yyValue, yyResult.index, yyError);
         }
       } // End scope for v$g$3.
     }
@@ -177,7 +279,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlLt", v$g$1);
 
-      return new SemanticValue(yyValue, yyIndex, yyError);
+      return yySlotLexerScala$XmlLt.set(yyValue, yyIndex, yyError);
     }
 
     // Done.
@@ -209,7 +311,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlGt", v$g$1);
 
-      return new SemanticValue(yyValue, yyIndex, yyError);
+      return yySlotLexerScala$XmlGt.set(yyValue, yyIndex, yyError);
     }
 
     // Done.
@@ -248,7 +350,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = GNode.create("XmlLtSlash", v$g$1);
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$XmlLtSlash.set(yyValue, yyIndex, yyError);
       }
     }
 
@@ -288,7 +390,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = GNode.create("XmlSlashGt", v$g$1);
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$XmlSlashGt.set(yyValue, yyIndex, yyError);
       }
     }
 
@@ -321,7 +423,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlEq", v$g$1);
 
-      return new SemanticValue(yyValue, yyIndex, yyError);
+      return yySlotLexerScala$XmlEq.set(yyValue, yyIndex, yyError);
     }
 
     // Done.
@@ -402,7 +504,7 @@ public final class LexerScala extends ParserBase {
               yyValue = GNode.create("XmlEmptyElemTag", v$g$3.size() + 4).
                 add(v$g$1).add(v$g$2).addAll(v$g$3).add(v$g$4).add(v$g$5);
 
-              return yyResult.createValue(yyValue, yyError);
+              return yySlotLexerScala$XmlEmptyElemTag.set(yyValue, yyResult.index, yyError);
             }
           } // End scope for v$g$4.
         } // End scope for v$g$3.
@@ -484,7 +586,7 @@ public final class LexerScala extends ParserBase {
               yyValue = GNode.create("XmlSTag", v$g$3.size() + 4).
                 add(v$g$1).add(v$g$2).addAll(v$g$3).add(v$g$4).add(v$g$5);
 
-              return yyResult.createValue(yyValue, yyError);
+              return yySlotLexerScala$XmlSTag.set(yyValue, yyResult.index, yyError);
             }
           } // End scope for v$g$4.
         } // End scope for v$g$3.
@@ -545,7 +647,7 @@ public final class LexerScala extends ParserBase {
 
             yyValue = GNode.create("XmlETag", v$g$1, v$g$2, v$g$3, v$g$4);
 
-            return yyResult.createValue(yyValue, yyError);
+            return yySlotLexerScala$XmlETag.set(yyValue, yyResult.index, yyError);
           }
         } // End scope for v$g$3.
       }
@@ -626,7 +728,7 @@ public final class LexerScala extends ParserBase {
 
                 yyValue = GNode.create("XmlAttribute", v$g$1, v$g$2, v$g$3, v$g$4, v$g$5, v$g$6);
 
-                return yyResult.createValue(yyValue, yyError);
+                return yySlotLexerScala$XmlAttribute.set(yyValue, yyResult.index, yyError);
               }
             } // End scope for v$g$5.
           }
@@ -664,7 +766,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlContent", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlContent.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative <XmlCDSect>.
@@ -676,7 +778,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlContent", v$g$2);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlContent.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative <XmlPI>.
@@ -688,7 +790,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlContent", v$g$3);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlContent.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative <XmlCharData>.
@@ -700,7 +802,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlContent", v$g$4);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlContent.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative <XmlElement>.
@@ -712,7 +814,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlContent", v$g$5);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlContent.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative <XmlReference>.
@@ -724,7 +826,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlContent", v$g$6);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlContent.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative <XmlComment>.
@@ -736,7 +838,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlContent", v$g$7);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlContent.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -769,7 +871,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlEmptyTagName", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlEmptyTagName.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -802,7 +904,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlSTagName", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlSTagName.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -835,7 +937,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlETagName", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlETagName.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -868,7 +970,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlAttName", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlAttName.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -912,7 +1014,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyRepetition1);
 
-      return new SemanticValue(yyValue, yyRepetition1, yyError);
+      return yySlotLexerScala$xmlName.set(yyValue, yyRepetition1, yyError);
     }
 
     // Done.
@@ -945,7 +1047,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = null;
 
-      return new SemanticValue(yyValue, yyIndex, yyError);
+      return yySlotLexerScala$XmlNameStartChar.set(yyIndex, yyError);
     }
 
     // Alternative 2.
@@ -957,7 +1059,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$XmlNameStartChar.set(yyIndex, yyError);
       }
     }
 
@@ -969,7 +1071,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = null;
 
-      return new SemanticValue(yyValue, yyIndex, yyError);
+      return yySlotLexerScala$XmlNameStartChar.set(yyIndex, yyError);
     }
 
     // Alternative 4.
@@ -981,7 +1083,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$XmlNameStartChar.set(yyIndex, yyError);
       }
     }
 
@@ -1016,7 +1118,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = null;
 
-      return new SemanticValue(yyValue, yyIndex, yyError);
+      return yySlotLexerScala$XmlNameChar.set(yyIndex, yyError);
     }
 
     // Alternative 2.
@@ -1028,7 +1130,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$XmlNameChar.set(yyIndex, yyError);
       }
     }
 
@@ -1040,7 +1142,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = null;
 
-      return new SemanticValue(yyValue, yyIndex, yyError);
+      return yySlotLexerScala$XmlNameChar.set(yyIndex, yyError);
     }
 
     // Alternative 4.
@@ -1052,7 +1154,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$XmlNameChar.set(yyIndex, yyError);
       }
     }
 
@@ -1067,14 +1169,14 @@ public final class LexerScala extends ParserBase {
         {
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotLexerScala$XmlNameChar.set(yyIndex, yyError);
         }
 
       case '.':
         {
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotLexerScala$XmlNameChar.set(yyIndex, yyError);
         }
 
       case '0':
@@ -1090,7 +1192,7 @@ public final class LexerScala extends ParserBase {
         {
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotLexerScala$XmlNameChar.set(yyIndex, yyError);
         }
 
       default:
@@ -1129,7 +1231,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlAttValue", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlAttValue.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative <ScalaToken>.
@@ -1141,7 +1243,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlAttValue", v$g$2);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlAttValue.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -1359,7 +1461,7 @@ public final class LexerScala extends ParserBase {
 
             yyValue = difference(yyStart, yyIndex);
 
-            return new SemanticValue(yyValue, yyIndex, yyError);
+            return yySlotLexerScala$xmlAttValue.set(yyValue, yyIndex, yyError);
           }
         }
         break;
@@ -1546,7 +1648,7 @@ public final class LexerScala extends ParserBase {
 
             yyValue = difference(yyStart, yyIndex);
 
-            return new SemanticValue(yyValue, yyIndex, yyError);
+            return yySlotLexerScala$xmlAttValue.set(yyValue, yyIndex, yyError);
           }
         }
         break;
@@ -1587,7 +1689,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlCharData", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlCharData.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -1620,7 +1722,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlComment", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlComment.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -1735,7 +1837,7 @@ public final class LexerScala extends ParserBase {
 
                   yyValue = difference(yyStart, yyIndex);
 
-                  return new SemanticValue(yyValue, yyIndex, yyError);
+                  return yySlotLexerScala$xmlComment.set(yyValue, yyIndex, yyError);
                 } else {
                   yyError = yyError.select("'-->' expected", yyBase);
                 }
@@ -1797,7 +1899,7 @@ public final class LexerScala extends ParserBase {
 
             yyValue = difference(yyStart, yyIndex);
 
-            return new SemanticValue(yyValue, yyIndex, yyError);
+            return yySlotLexerScala$XmlReference.set(yyValue, yyIndex, yyError);
           }
         }
 
@@ -1852,7 +1954,7 @@ public final class LexerScala extends ParserBase {
 
                 yyValue = difference(yyStart, yyIndex);
 
-                return new SemanticValue(yyValue, yyIndex, yyError);
+                return yySlotLexerScala$XmlReference.set(yyValue, yyIndex, yyError);
               }
             }
 
@@ -1915,7 +2017,7 @@ public final class LexerScala extends ParserBase {
 
                     yyValue = difference(yyStart, yyIndex);
 
-                    return new SemanticValue(yyValue, yyIndex, yyError);
+                    return yySlotLexerScala$XmlReference.set(yyValue, yyIndex, yyError);
                   }
                 }
               }
@@ -1964,7 +2066,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = GNode.create("XmlCDSect", v$g$1, v$g$2, v$g$3);
 
-          return yyResult.createValue(yyValue, yyError);
+          return yySlotLexerScala$XmlCDSect.set(yyValue, yyResult.index, yyError);
         }
       }
     }
@@ -2032,7 +2134,7 @@ public final class LexerScala extends ParserBase {
 
                       yyValue = GNode.create("XmlCDStart", v$g$1);
 
-                      return new SemanticValue(yyValue, yyIndex, yyError);
+                      return yySlotLexerScala$XmlCDStart.set(yyValue, yyIndex, yyError);
                     }
                   }
                 }
@@ -2081,7 +2183,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = GNode.create("XmlCDEnd", v$g$1);
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotLexerScala$XmlCDEnd.set(yyValue, yyIndex, yyError);
         }
       }
     }
@@ -2115,7 +2217,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("XmlCData", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLexerScala$XmlCData.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -2155,7 +2257,7 @@ public final class LexerScala extends ParserBase {
 
     yyValue = difference(yyStart, yyRepetition1);
 
-    return new SemanticValue(yyValue, yyRepetition1, yyError);
+    return yySlotLexerScala$xmlCDData.set(yyValue, yyRepetition1, yyError);
   }
 
   // =========================================================================
@@ -2206,7 +2308,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotLexerScala$xmlCDataChar.set(yyResult.index, yyError);
       }
     } else {
       yyError = yyError.select("xml c data char expected", yyStart);
@@ -2272,7 +2374,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = difference(yyStart, yyIndex);
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotLexerScala$XmlPI.set(yyValue, yyIndex, yyError);
             } else {
               yyError = yyError.select("'?>' expected", yyBase);
             }
@@ -2329,7 +2431,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotLexerScala$xmlPIChar.set(yyResult.index, yyError);
       }
     } else {
       yyError = yyError.select("xml p i char expected", yyStart);
@@ -2376,7 +2478,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotLexerScala$xmlPITarget.set(yyResult.index, yyError);
       }
     } else {
       yyError = yyError.select("xml p i target expected", yyStart);
@@ -2570,7 +2672,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$xmlChar.set(yyIndex, yyError);
       }
     }
 
@@ -2583,7 +2685,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotLexerScala$xmlChar.set(yyIndex, yyError);
       }
     }
 
@@ -2687,7 +2789,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyRepetition1);
 
-      return new SemanticValue(yyValue, yyRepetition1, yyError);
+      return yySlotLexerScala$xmlWs.set(yyValue, yyRepetition1, yyError);
     }
 
     // Done.
@@ -2733,7 +2835,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyRepetition1);
 
-      return new SemanticValue(yyValue, yyRepetition1, yyError);
+      return yySlotxmlCharDataInScala.set(yyValue, yyRepetition1, yyError);
     }
 
     // Done.
@@ -2776,7 +2878,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotxmlCharDataCharInScala.set(yyIndex, yyError);
             }
           }
         }
@@ -2791,7 +2893,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotxmlCharDataCharInScala.set(yyIndex, yyError);
             }
           }
         }
@@ -2820,7 +2922,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotxmlCharDataCharInScala.set(yyIndex, yyError);
       }
     } else {
       yyError = yyError.select("xml char data char in scala expected", yyStart);
@@ -3257,7 +3359,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotScalaToken$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 2.
@@ -3277,7 +3379,7 @@ public final class LexerScala extends ParserBase {
       if (yyResult.hasValue()) {
         yyValue = yyResult.semanticValue();
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotScalaToken$$Choice1.set(yyValue, yyResult.index, yyError);
       }
     } else {
       yyError = yyError.select("scala token expected", yyStart);
@@ -3430,7 +3532,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotTokenInBrace$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 2.
@@ -3450,7 +3552,7 @@ public final class LexerScala extends ParserBase {
       if (yyResult.hasValue()) {
         yyValue = yyResult.semanticValue();
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotTokenInBrace$$Choice1.set(yyValue, yyResult.index, yyError);
       }
     } else {
       yyError = yyError.select("token in brace expected", yyStart);
@@ -3542,7 +3644,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = GNode.create("XmlToken", v$g$1, v$g$2);
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotXmlToken.set(yyValue, yyResult.index, yyError);
       }
     }
 
@@ -3599,7 +3701,7 @@ public final class LexerScala extends ParserBase {
 
                   yyValue = GNode.create("XmlToken", v$g$3, v$g$4, v$g$5, v$g$6, v$g$7);
 
-                  return yyResult.createValue(yyValue, yyError);
+                  return yySlotXmlToken.set(yyValue, yyResult.index, yyError);
                 }
               }
             } // End scope for v$g$6.
@@ -3661,7 +3763,7 @@ public final class LexerScala extends ParserBase {
 
                   yyValue = GNode.create("XmlToken", v$g$8, v$g$9, v$g$10, v$g$11, v$g$12);
 
-                  return yyResult.createValue(yyValue, yyError);
+                  return yySlotXmlToken.set(yyValue, yyResult.index, yyError);
                 }
               }
             } // End scope for v$g$11.
@@ -3699,7 +3801,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Literal", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 2.
@@ -3711,7 +3813,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Literal", v$g$2);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 3.
@@ -3723,7 +3825,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Literal", v$g$3);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 4.
@@ -3735,7 +3837,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Literal", v$g$4);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 5.
@@ -3747,7 +3849,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Literal", v$g$5);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -3828,7 +3930,7 @@ public final class LexerScala extends ParserBase {
         {
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotdecimalNumeral.set(yyIndex, yyError);
         }
 
       case '1':
@@ -3873,7 +3975,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyRepetition1, yyError);
+          return yySlotdecimalNumeral.set(yyRepetition1, yyError);
         }
 
       default:
@@ -3966,7 +4068,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyRepetition1, yyError);
+              return yySlothexNumeral.set(yyRepetition1, yyError);
             }
           }
           break;
@@ -4040,7 +4142,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyRepetition1, yyError);
+        return yySlotoctalNumeral.set(yyRepetition1, yyError);
       }
     }
 
@@ -4093,7 +4195,7 @@ public final class LexerScala extends ParserBase {
             {
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotcharacterChar.set(yyIndex, yyError);
             }
 
           case 'u':
@@ -4212,7 +4314,7 @@ public final class LexerScala extends ParserBase {
                                     {
                                       yyValue = null;
 
-                                      return new SemanticValue(yyValue, yyIndex, yyError);
+                                      return yySlotcharacterChar.set(yyIndex, yyError);
                                     }
 
                                   default:
@@ -4295,7 +4397,7 @@ public final class LexerScala extends ParserBase {
                           {
                             yyValue = null;
 
-                            return new SemanticValue(yyValue, yyIndex, yyError);
+                            return yySlotcharacterChar.set(yyIndex, yyError);
                           }
 
                         default:
@@ -4353,7 +4455,7 @@ public final class LexerScala extends ParserBase {
                     {
                       yyValue = null;
 
-                      return new SemanticValue(yyValue, yyIndex, yyError);
+                      return yySlotcharacterChar.set(yyIndex, yyError);
                     }
 
                   default:
@@ -4365,7 +4467,7 @@ public final class LexerScala extends ParserBase {
 
                 yyValue = null;
 
-                return new SemanticValue(yyValue, yyChoice3, yyError);
+                return yySlotcharacterChar.set(yyChoice3, yyError);
               }
 
             default:
@@ -4398,7 +4500,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotcharacterChar.set(yyIndex, yyError);
         }
       }
     } else {
@@ -4454,7 +4556,7 @@ public final class LexerScala extends ParserBase {
             {
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotstringChar.set(yyIndex, yyError);
             }
 
           case 'u':
@@ -4573,7 +4675,7 @@ public final class LexerScala extends ParserBase {
                                     {
                                       yyValue = null;
 
-                                      return new SemanticValue(yyValue, yyIndex, yyError);
+                                      return yySlotstringChar.set(yyIndex, yyError);
                                     }
 
                                   default:
@@ -4656,7 +4758,7 @@ public final class LexerScala extends ParserBase {
                           {
                             yyValue = null;
 
-                            return new SemanticValue(yyValue, yyIndex, yyError);
+                            return yySlotstringChar.set(yyIndex, yyError);
                           }
 
                         default:
@@ -4714,7 +4816,7 @@ public final class LexerScala extends ParserBase {
                     {
                       yyValue = null;
 
-                      return new SemanticValue(yyValue, yyIndex, yyError);
+                      return yySlotstringChar.set(yyIndex, yyError);
                     }
 
                   default:
@@ -4726,7 +4828,7 @@ public final class LexerScala extends ParserBase {
 
                 yyValue = null;
 
-                return new SemanticValue(yyValue, yyChoice3, yyError);
+                return yySlotstringChar.set(yyChoice3, yyError);
               }
 
             default:
@@ -4759,7 +4861,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotstringChar.set(yyIndex, yyError);
         }
       }
     } else {
@@ -4795,7 +4897,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Identifier", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotIdentifier.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -4909,7 +5011,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotvarIdentifier$$Choice2.set(yyIndex, yyError);
       }
     }
 
@@ -5486,7 +5588,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotvarIdentifier$$Choice2.set(yyIndex, yyError);
       }
     }
 
@@ -5506,7 +5608,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotvarIdentifier$$Choice2.set(yyIndex, yyError);
             }
           }
         }
@@ -5546,7 +5648,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotvarIdentifier$$Choice2.set(yyIndex, yyError);
             }
           }
         }
@@ -5597,7 +5699,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyOption1);
 
-      return new SemanticValue(yyValue, yyOption1, yyError);
+      return yySlotvarIdentifier$$Choice1.set(yyValue, yyOption1, yyError);
     }
 
     // Done.
@@ -5631,7 +5733,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotupperIdentifier$$Choice2.set(yyIndex, yyError);
       }
     }
 
@@ -6201,7 +6303,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotupperIdentifier$$Choice2.set(yyIndex, yyError);
       }
     }
 
@@ -6222,7 +6324,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotupperIdentifier$$Choice2.set(yyIndex, yyError);
             }
           }
         }
@@ -6266,7 +6368,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = null;
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotupperIdentifier$$Choice2.set(yyIndex, yyError);
             }
           }
         }
@@ -6277,7 +6379,7 @@ public final class LexerScala extends ParserBase {
         {
           yyValue = null;
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotupperIdentifier$$Choice2.set(yyIndex, yyError);
         }
 
       default:
@@ -6325,7 +6427,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyOption1);
 
-      return new SemanticValue(yyValue, yyOption1, yyError);
+      return yySlotupperIdentifier$$Choice1.set(yyValue, yyOption1, yyError);
     }
 
     // Done.
@@ -6394,7 +6496,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = difference(yyStart, yyIndex);
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotidentifier.set(yyValue, yyIndex, yyError);
         }
       }
     }
@@ -6410,7 +6512,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyResult.index);
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotidentifier.set(yyValue, yyResult.index, yyError);
       }
     }
 
@@ -6425,7 +6527,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyResult.index);
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotidentifier.set(yyValue, yyResult.index, yyError);
       }
     }
 
@@ -6440,7 +6542,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyResult.index);
 
-        return yyResult.createValue(yyValue, yyError);
+        return yySlotidentifier.set(yyValue, yyResult.index, yyError);
       }
     }
 
@@ -8725,7 +8827,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Abstract", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 2.
@@ -8736,7 +8838,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Case", v$g$2);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 3.
@@ -8747,7 +8849,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Catch", v$g$3);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 4.
@@ -8758,7 +8860,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Class", v$g$4);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 5.
@@ -8769,7 +8871,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Def", v$g$5);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 6.
@@ -8780,7 +8882,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Do", v$g$6);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 7.
@@ -8791,7 +8893,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Else", v$g$7);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 8.
@@ -8802,7 +8904,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Extends", v$g$8);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 9.
@@ -8813,7 +8915,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("False", v$g$9);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 10.
@@ -8824,7 +8926,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Final", v$g$10);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 11.
@@ -8835,7 +8937,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Finally", v$g$11);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 12.
@@ -8846,7 +8948,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("For", v$g$12);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 13.
@@ -8857,7 +8959,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("ForSome", v$g$13);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 14.
@@ -8868,7 +8970,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("If", v$g$14);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 15.
@@ -8879,7 +8981,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Implicit", v$g$15);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 16.
@@ -8890,7 +8992,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Import", v$g$16);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 17.
@@ -8901,7 +9003,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Lazy", v$g$17);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 18.
@@ -8912,7 +9014,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Match", v$g$18);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 19.
@@ -8923,7 +9025,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("New", v$g$19);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 20.
@@ -8934,7 +9036,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Null", v$g$20);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 21.
@@ -8945,7 +9047,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Object", v$g$21);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 22.
@@ -8956,7 +9058,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Override", v$g$22);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 23.
@@ -8967,7 +9069,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Package", v$g$23);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 24.
@@ -8978,7 +9080,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Private", v$g$24);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 25.
@@ -8989,7 +9091,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Protected", v$g$25);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 26.
@@ -9000,7 +9102,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Requires", v$g$26);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 27.
@@ -9011,7 +9113,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Return", v$g$27);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 28.
@@ -9022,7 +9124,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Sealed", v$g$28);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 29.
@@ -9033,7 +9135,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Super", v$g$29);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 30.
@@ -9044,7 +9146,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("This", v$g$30);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 31.
@@ -9055,7 +9157,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Throw", v$g$31);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 32.
@@ -9066,7 +9168,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Trait", v$g$32);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 33.
@@ -9077,7 +9179,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Try", v$g$33);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 34.
@@ -9088,7 +9190,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("True", v$g$34);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 35.
@@ -9099,7 +9201,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Type", v$g$35);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 36.
@@ -9110,7 +9212,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Val", v$g$36);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 37.
@@ -9121,7 +9223,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Var", v$g$37);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 38.
@@ -9132,7 +9234,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("While", v$g$38);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 39.
@@ -9143,7 +9245,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("With", v$g$39);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 40.
@@ -9154,7 +9256,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Yield", v$g$40);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 41.
@@ -9165,7 +9267,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Wild", v$g$41);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 42.
@@ -9176,7 +9278,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("RArrow", v$g$42);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 43.
@@ -9187,7 +9289,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("RArrow", v$g$43);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 44.
@@ -9198,7 +9300,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("LArrow", v$g$44);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 45.
@@ -9209,7 +9311,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("LArrow", v$g$45);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 46.
@@ -9220,7 +9322,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("UBound", v$g$46);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 47.
@@ -9231,7 +9333,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("VBound", v$g$47);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 48.
@@ -9242,7 +9344,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("LBound", v$g$48);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 49.
@@ -9253,7 +9355,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Eq", v$g$49);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 50.
@@ -9264,7 +9366,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Colon", v$g$50);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 51.
@@ -9275,7 +9377,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Pan", v$g$51);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 52.
@@ -9286,7 +9388,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("At", v$g$52);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotKeyword.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -11525,7 +11627,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("IntegerLiteral", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotIntegerLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -11577,7 +11679,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyOption1);
 
-      return new SemanticValue(yyValue, yyOption1, yyError);
+      return yySlotintegerLiteral.set(yyValue, yyOption1, yyError);
     }
 
     // Alternative 2.
@@ -11607,7 +11709,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyOption1);
 
-      return new SemanticValue(yyValue, yyOption1, yyError);
+      return yySlotintegerLiteral.set(yyValue, yyOption1, yyError);
     }
 
     // Alternative 3.
@@ -11637,7 +11739,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyOption1);
 
-      return new SemanticValue(yyValue, yyOption1, yyError);
+      return yySlotintegerLiteral.set(yyValue, yyOption1, yyError);
     }
 
     // Done.
@@ -11669,7 +11771,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("FloatingPointLiteral", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotFloatingPointLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -11797,7 +11899,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyOption1);
 
-        return new SemanticValue(yyValue, yyOption1, yyError);
+        return yySlotfloatingPointLiteral.set(yyValue, yyOption1, yyError);
       }
     }
 
@@ -11872,7 +11974,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyOption1);
 
-        return new SemanticValue(yyValue, yyOption1, yyError);
+        return yySlotfloatingPointLiteral.set(yyValue, yyOption1, yyError);
       }
     }
 
@@ -11943,7 +12045,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyOption1);
 
-        return new SemanticValue(yyValue, yyOption1, yyError);
+        return yySlotfloatingPointLiteral.set(yyValue, yyOption1, yyError);
       }
 
       // Nested alternative 2.
@@ -11969,7 +12071,7 @@ public final class LexerScala extends ParserBase {
           {
             yyValue = difference(yyStart, yyIndex);
 
-            return new SemanticValue(yyValue, yyIndex, yyError);
+            return yySlotfloatingPointLiteral.set(yyValue, yyIndex, yyError);
           }
 
         default:
@@ -12066,7 +12168,7 @@ public final class LexerScala extends ParserBase {
 
             yyValue = null;
 
-            return new SemanticValue(yyValue, yyRepetition1, yyError);
+            return yySlotexponent.set(yyRepetition1, yyError);
           }
         }
         break;
@@ -12105,7 +12207,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("CharacterLiteral", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotCharacterLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -12151,7 +12253,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyIndex);
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotcharacterLiteral.set(yyValue, yyIndex, yyError);
       }
     }
 
@@ -12184,7 +12286,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("StringLiteral", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotStringLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -12254,7 +12356,7 @@ public final class LexerScala extends ParserBase {
 
                 yyValue = difference(yyStart, yyIndex);
 
-                return new SemanticValue(yyValue, yyIndex, yyError);
+                return yySlotstringLiteral.set(yyValue, yyIndex, yyError);
               }
             }
           }
@@ -12282,7 +12384,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyIndex);
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotstringLiteral.set(yyValue, yyIndex, yyError);
       }
     }
 
@@ -12334,7 +12436,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = null;
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotmultiLineChar.set(yyIndex, yyError);
       }
     }
 
@@ -12367,7 +12469,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("SymbolLiteral", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotSymbolLiteral.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -12423,7 +12525,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyRepetition1);
 
-        return new SemanticValue(yyValue, yyRepetition1, yyError);
+        return yySlotsymbolLiteral.set(yyValue, yyRepetition1, yyError);
       }
 
       // Nested alternative 2.
@@ -12444,7 +12546,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = difference(yyStart, yyOption1);
 
-          return new SemanticValue(yyValue, yyOption1, yyError);
+          return yySlotsymbolLiteral.set(yyValue, yyOption1, yyError);
         }
       }
 
@@ -12466,7 +12568,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = difference(yyStart, yyOption1);
 
-          return new SemanticValue(yyValue, yyOption1, yyError);
+          return yySlotsymbolLiteral.set(yyValue, yyOption1, yyError);
         }
       }
 
@@ -12491,7 +12593,7 @@ public final class LexerScala extends ParserBase {
 
             yyValue = difference(yyStart, yyOption1);
 
-            return new SemanticValue(yyValue, yyOption1, yyError);
+            return yySlotsymbolLiteral.set(yyValue, yyOption1, yyError);
           }
 
         default:
@@ -12555,7 +12657,7 @@ public final class LexerScala extends ParserBase {
           yyValue = GNode.create("DocComment", v$g$2.size() + 2).
             add(v$g$1).addAll(v$g$2).add(v$g$3);
 
-          return yyResult.createValue(yyValue, yyError);
+          return yySlotDocComment.set(yyValue, yyResult.index, yyError);
         }
       } // End scope for v$g$2.
     }
@@ -12586,7 +12688,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotDocComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 2.
@@ -12596,7 +12698,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotDocComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 3.
@@ -12606,7 +12708,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotDocComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 4.
@@ -12616,7 +12718,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotDocComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 5.
@@ -12626,7 +12728,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotDocComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -12666,7 +12768,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = GNode.create("DocCommentStart", v$g$1);
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotDocCommentStart.set(yyValue, yyIndex, yyError);
         }
       }
     }
@@ -12705,7 +12807,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = GNode.create("DocCommentEnd", v$g$1);
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotDocCommentEnd.set(yyValue, yyIndex, yyError);
       }
     }
 
@@ -12738,7 +12840,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("DocCommentData", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotDocCommentData.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -12795,7 +12897,7 @@ public final class LexerScala extends ParserBase {
           yyValue = GNode.create("BlockComment", v$g$2.size() + 2).
             add(v$g$1).addAll(v$g$2).add(v$g$3);
 
-          return yyResult.createValue(yyValue, yyError);
+          return yySlotBlockComment.set(yyValue, yyResult.index, yyError);
         }
       } // End scope for v$g$2.
     }
@@ -12828,7 +12930,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotBlockComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 2.
@@ -12838,7 +12940,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotBlockComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 3.
@@ -12848,7 +12950,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotBlockComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 4.
@@ -12858,7 +12960,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotBlockComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Alternative 5.
@@ -12868,7 +12970,7 @@ public final class LexerScala extends ParserBase {
     if (yyResult.hasValue()) {
       yyValue = yyResult.semanticValue();
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotBlockComment$$Choice1.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -12915,7 +13017,7 @@ public final class LexerScala extends ParserBase {
 
           yyValue = GNode.create("BlockCommentStart", v$g$1);
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotBlockCommentStart.set(yyValue, yyIndex, yyError);
         } else {
           yyError = yyError.select("block comment start expected", yyStart);
         }
@@ -12956,7 +13058,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = GNode.create("BlockCommentEnd", v$g$1);
 
-        return new SemanticValue(yyValue, yyIndex, yyError);
+        return yySlotBlockCommentEnd.set(yyValue, yyIndex, yyError);
       }
     }
 
@@ -12989,7 +13091,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("BlockCommentData", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotBlockCommentData.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -13050,7 +13152,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyRepetition1);
 
-      return new SemanticValue(yyValue, yyRepetition1, yyError);
+      return yySlotblockedCommentData.set(yyValue, yyRepetition1, yyError);
     }
 
     // Done.
@@ -13184,7 +13286,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("CommentTag", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotCommentTag.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -13235,7 +13337,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyRepetition1);
 
-        return new SemanticValue(yyValue, yyRepetition1, yyError);
+        return yySlotcommentTag.set(yyValue, yyRepetition1, yyError);
       }
     }
 
@@ -13268,7 +13370,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("LineComment", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotLineComment.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -13327,7 +13429,7 @@ public final class LexerScala extends ParserBase {
 
         yyValue = difference(yyStart, yyRepetition1);
 
-        return new SemanticValue(yyValue, yyRepetition1, yyError);
+        return yySlotlineComment.set(yyValue, yyRepetition1, yyError);
       }
     }
 
@@ -13359,7 +13461,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Nl", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotNl.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -13389,7 +13491,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Ws", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotWs.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -13431,7 +13533,7 @@ public final class LexerScala extends ParserBase {
 
               yyValue = "\r\n";
 
-              return new SemanticValue(yyValue, yyIndex, yyError);
+              return yySlotn.set(yyValue, yyIndex, yyError);
             }
           }
 
@@ -13439,14 +13541,14 @@ public final class LexerScala extends ParserBase {
 
           yyValue = "\r";
 
-          return new SemanticValue(yyValue, yyChoice1, yyError);
+          return yySlotn.set(yyValue, yyChoice1, yyError);
         }
 
       case '\n':
         {
           yyValue = "\n";
 
-          return new SemanticValue(yyValue, yyIndex, yyError);
+          return yySlotn.set(yyValue, yyIndex, yyError);
         }
 
       default:
@@ -13523,7 +13625,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyRepetition1);
 
-      return new SemanticValue(yyValue, yyRepetition1, yyError);
+      return yySlotw.set(yyValue, yyRepetition1, yyError);
     }
 
     // Done.
@@ -13554,7 +13656,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = GNode.create("Error", v$g$1);
 
-      return yyResult.createValue(yyValue, yyError);
+      return yySlotError.set(yyValue, yyResult.index, yyError);
     }
 
     // Done.
@@ -13599,7 +13701,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = difference(yyStart, yyRepetition1);
 
-      return new SemanticValue(yyValue, yyRepetition1, yyError);
+      return yySloterror.set(yyValue, yyRepetition1, yyError);
     }
 
     // Done.
@@ -13636,7 +13738,7 @@ public final class LexerScala extends ParserBase {
 
       yyValue = null;
 
-      return new SemanticValue(yyValue, yyStart, yyError);
+      return yySlotEOF.set(yyStart, yyError);
     } else {
       yyError = yyError.select("EOF expected", yyStart);
     }
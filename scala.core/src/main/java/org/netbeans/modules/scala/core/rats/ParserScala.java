@@ -174,6 +174,17 @@ public final class ParserScala extends ParserBase {
     yyState = new ParserState();
   }
 
+  /**
+   * Create a new packrat parser.
+   *
+   * @param input The characters.
+   * @param file The file name.
+   */
+  public ParserScala(final CharSequence input, final String file) {
+    super(input, file);
+    yyState = new ParserState();
+  }
+
   // =========================================================================
 
   protected Column newColumn() {
@@ -49,10 +49,20 @@ import scala.collection.mutable.HashSet
  */
 class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsTokens) {
 
+  import AstRootScope._
+
   protected val _idTokenToItems = new HashMap[Token[TokenId], List[AstItem]]
-  private var _sortedTokens = Array[Token[TokenId]]()
-  private var _isTokensSorted = false
+  /**
+   * Offset sorted index of idTokens, which is built once all items are put, @see indexTokens.
+   * It's replaced as a whole, and is null when more items were put after it was built.
+   */
+  @volatile private var _tokenIndex: TokenIndex = null
   private val _importingItems = new HashSet[AstItem]
+  /**
+   * name -> symbol -> items, occurrences are always of same name, and items of same
+   * symbol are referred/occurred by same items, so we only need to test one item per group
+   */
+  private val _nameToSymbolItems = new HashMap[String, HashMap[AnyRef, ArrayBuffer[AstItem]]]
 
   def contains(idToken: Token[TokenId]): Boolean = _idTokenToItems.contains(idToken)
 
@@ -64,12 +74,48 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
     _importingItems.toSet
   }
 
-  private def sortedTokens(th: TokenHierarchy[_]): Array[Token[TokenId]] = {
-    if (!_isTokensSorted) {
-      _sortedTokens = _idTokenToItems.keySet.toArray sortWith { compareToken(th, _, _) }
-      _isTokensSorted = true
+  private def tokenIndex(th: TokenHierarchy[_]): TokenIndex = {
+    val index = _tokenIndex
+    if (index ne null) index else indexTokens(th)
+  }
+
+  /**
+   * Capture the offsets and lengths of all idTokens in primitive arrays, so lookups by offset
+   * do not need to ask token hierarchy any more. It's called by visitor once the items are all
+   * put, and will be called again lazily if more items were put after that.
+   */
+  def indexTokens(th: TokenHierarchy[_]): TokenIndex = synchronized {
+    val index = _tokenIndex
+    if (index ne null) return index
+
+    val tokens = _idTokenToItems.keySet.toArray
+    val n = tokens.length
+    // * sort (offset, index) pairs packed in longs, so we get each offset once and compare primitives only
+    val keys = new Array[Long](n)
+    var i = 0
+    while (i < n) {
+      keys(i) = (tokens(i).offset(th).toLong << 32) | i
+      i += 1
+    }
+    java.util.Arrays.sort(keys)
+
+    val sortedTokens = new Array[Token[TokenId]](n)
+    val sortedItems = new Array[List[AstItem]](n)
+    val offsets = new Array[Int](n)
+    val lengths = new Array[Int](n)
+    i = 0
+    while (i < n) {
+      val token = tokens((keys(i) & 0xFFFFFFFFL).toInt)
+      sortedTokens(i) = token
+      sortedItems(i) = _idTokenToItems(token)
+      offsets(i) = (keys(i) >> 32).toInt
+      lengths(i) = token.length
+      i += 1
     }
-    _sortedTokens
+
+    val newIndex = new TokenIndex(sortedTokens, sortedItems, offsets, lengths)
+    _tokenIndex = newIndex
+    newIndex
   }
 
   def putImportingItem(item: AstItem): Boolean = {
@@ -85,61 +131,49 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
       if (item.resultType ne null) {
         // * it has exlicit assigned resultType, always add it
         _idTokenToItems += (idToken -> (item :: items))
-        _isTokensSorted = false
+        _tokenIndex = null
+        indexSymbol(item)
         true
       } else false // * don't add item with same symbol and resultType eq null
     } else {
       _idTokenToItems += (idToken -> (item :: items))
-      _isTokensSorted = false
+      _tokenIndex = null
+      indexSymbol(item)
       true
     }
   }
 
-  final def findItemsAt(th: TokenHierarchy[_], offset: Int): List[AstItem] = {
-    val tokens = sortedTokens(th)
-
-    var lo = 0
-    var hi = tokens.length - 1
-    while (lo <= hi) {
-      val mid = (lo + hi) >> 1
-      val middle = tokens(mid)
-      if (offset < middle.offset(th)) {
-        hi = mid - 1
-      } else if (offset > middle.offset(th) + middle.length) {
-        lo = mid + 1
-      } else {
-        return _idTokenToItems.get(middle).getOrElse(Nil)
-      }
+  private def indexSymbol(item: AstItem) {
+    val symbolToItems = _nameToSymbolItems.getOrElseUpdate(item.name, new HashMap[AnyRef, ArrayBuffer[AstItem]])
+    symbolToItems.getOrElseUpdate(item.symbol, new ArrayBuffer[AstItem]) += item
+  }
+
+  /**
+   * @return items of same name, grouped by symbol
+   */
+  private def symbolGroups(name: String): Iterable[ArrayBuffer[AstItem]] = {
+    _nameToSymbolItems.get(name) match {
+      case Some(x) => x.values
+      case None    => Nil
     }
+  }
 
-    Nil
+  final def findItemsAt(th: TokenHierarchy[_], offset: Int): List[AstItem] = {
+    val index = tokenIndex(th)
+    val idx = index.indexOf(offset)
+    if (idx >= 0) index.items(idx) else Nil
   }
 
   final def findNeastItemsAt(th: TokenHierarchy[_], offset: Int): List[AstItem] = {
-    val tokens = sortedTokens(th)
-
-    var lo = 0
-    var hi = tokens.length - 1
-    while (lo <= hi) {
-      val mid = (lo + hi) >> 1
-      val middle = tokens(mid)
-      if (offset < middle.offset(th)) {
-        hi = mid - 1
-      } else if (offset > middle.offset(th) + middle.length) {
-        lo = mid + 1
-      } else {
-        _idTokenToItems.get(middle) match {
-          case Some(x) if !x.isEmpty => return x
-          case _                     =>
-        }
-      }
+    val index = tokenIndex(th)
+    val idx = index.indexOf(offset)
+    if (idx >= 0) {
+      index.items(idx)
+    } else {
+      // * found null, return AstItem at insertion point, which is the neast one after offset
+      val lo = -(idx + 1)
+      if (lo < index.items.length) index.items(lo) else Nil
     }
-
-    // * found null, return AstItem at lo, lo is always increasing during above procedure
-    if (lo < tokens.length) {
-      val neastToken = tokens(lo)
-      _idTokenToItems.get(neastToken).getOrElse(Nil)
-    } else Nil
   }
 
   final def findItemsAt(token: Token[TokenId]): List[AstItem] = {
@@ -167,7 +201,7 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
       case ref: AstRef =>
         samePlaceItems(ref) foreach {
           case refx: AstRef =>
-            _idTokenToItems.valuesIterator foreach { xs =>
+            symbolGroups(refx.name) foreach { xs =>
               xs foreach {
                 case x: AstDfn if x.isReferredBy(refx) => return Some(x)
                 case _                                 =>
@@ -187,11 +221,8 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
         samePlaceItems(dfn) foreach {
           case dfnx: AstDfn =>
             occurrences += dfnx
-            _idTokenToItems.valuesIterator foreach { xs =>
-              occurrences ++= xs filter {
-                case x: AstRef => dfnx.isReferredBy(x)
-                case _         => false
-              }
+            symbolGroups(dfnx.name) foreach { xs =>
+              collectGroup(xs, occurrences)(_ => false, dfnx.isReferredBy(_))
             }
           case _ =>
         }
@@ -200,11 +231,8 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
         samePlaceItems(ref) foreach {
           case refx: AstRef =>
             occurrences += refx
-            _idTokenToItems.valuesIterator foreach { xs =>
-              occurrences ++= xs filter {
-                case x: AstDfn => x.isReferredBy(refx)
-                case x: AstRef => x.isOccurrence(refx)
-              }
+            symbolGroups(refx.name) foreach { xs =>
+              collectGroup(xs, occurrences)(_.isReferredBy(refx), _.isOccurrence(refx))
             }
           case _ =>
         }
@@ -213,6 +241,22 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
     occurrences.toSeq
   }
 
+  /**
+   * Items in a group have same name and symbol, so the conditions are tested on the first
+   * dfn and the first ref of the group only.
+   */
+  private def collectGroup(xs: ArrayBuffer[AstItem], result: ArrayBuffer[AstItem])(dfnCond: AstDfn => Boolean, refCond: AstRef => Boolean) {
+    val isDfnOccurrence = xs find (_.isInstanceOf[AstDfn]) exists { x => dfnCond(x.asInstanceOf[AstDfn]) }
+    val isRefOccurrence = xs find (_.isInstanceOf[AstRef]) exists { x => refCond(x.asInstanceOf[AstRef]) }
+    if (isDfnOccurrence || isRefOccurrence) {
+      result ++= xs filter {
+        case _: AstDfn => isDfnOccurrence
+        case _: AstRef => isRefOccurrence
+        case _         => false
+      }
+    }
+  }
+
   def samePlaceItems(item: AstItem): Seq[AstItem] = {
     _idTokenToItems.get(item.idToken) getOrElse Nil
   }
@@ -224,12 +268,8 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
     }
   }
 
-  private def compareToken(th: TokenHierarchy[_], o1: Token[TokenId], o2: Token[TokenId]): Boolean = {
-    o1.offset(th) < o2.offset(th)
-  }
-
   def debugPrintTokens(th: TokenHierarchy[_]): Unit = {
-    sortedTokens(th) foreach { token =>
+    tokenIndex(th).tokens foreach { token =>
       println("<" + token + "> ->")
       _idTokenToItems.get(token) foreach { items => items foreach { println _ } }
       println
@@ -237,3 +277,33 @@ class AstRootScope(boundsTokens: Array[Token[TokenId]]) extends AstScope(boundsT
     println
   }
 }
+
+object AstRootScope {
+  /**
+   * An immutable snapshot of the offset sorted idTokens, tokens, items, offsets and lengths
+   * are parallel arrays, so they are always read consistently via one reference.
+   */
+  final class TokenIndex(val tokens: Array[Token[TokenId]], val items: Array[List[AstItem]], val offsets: Array[Int], val lengths: Array[Int]) {
+
+    /**
+     * @return index of token of which [offset, offset + length] contains offset, or -(insertion point) - 1
+     */
+    def indexOf(offset: Int): Int = {
+      var lo = 0
+      var hi = offsets.length - 1
+      while (lo <= hi) {
+        val mid = (lo + hi) >>> 1
+        val start = offsets(mid)
+        if (offset < start) {
+          hi = mid - 1
+        } else if (offset > start + lengths(mid)) {
+          lo = mid + 1
+        } else {
+          return mid
+        }
+      }
+
+      -(lo + 1)
+    }
+  }
+}
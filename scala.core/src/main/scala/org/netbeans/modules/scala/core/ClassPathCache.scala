@@ -0,0 +1,124 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.core
+
+import java.io.File
+import java.util.logging.Logger
+import scala.collection.mutable
+import scala.reflect.io.AbstractFile
+import scala.tools.nsc.util.ClassPath
+
+/**
+ * Classpath entries of archives (jar/zip), which are shared between the ScalaGlobal
+ * instances of the same JVM, keyed by archive path + mtime + length.
+ *
+ * What is shared is only the directory tree that scalac builds for an archive
+ * (one entry object per file in it, e.g. about 20,000 for rt.jar) and the lazily
+ * computed package/class lists of this tree. Class files and pickles are still
+ * read per global, and the symbols, their loaders and types are owned by each
+ * global's symbol table, which could not be shared between Global instances, so
+ * the memory held by symbols is not saved by this cache.
+ *
+ * Entries are reference counted, a global acquires its entries when its platform
+ * classpath is created, and releases them when it's shut down.
+ *
+ * @author Caoyuan Deng
+ */
+object ClassPathCache {
+  private val log = Logger.getLogger(this.getClass.getName)
+
+  type Entry = ClassPath[AbstractFile]
+
+  case class Key(path: String, lastModified: Long, length: Long)
+  private class Cached(val entry: Entry, var refCount: Int)
+
+  private val keyToCached = new mutable.HashMap[Key, Cached]
+
+  /**
+   * @param entries the classpath entries computed by scalac's PathResolver
+   * @return shared entries (in same order) and the keys which should be released later
+   */
+  def acquire(entries: Seq[Entry]): (Seq[Entry], List[Key]) = synchronized {
+    var keys: List[Key] = Nil
+    val shared = entries map { entry =>
+      keyOf(entry) match {
+        case Some(key) =>
+          keys ::= key
+          keyToCached.get(key) match {
+            case Some(cached) =>
+              cached.refCount += 1
+              cached.entry
+            case None =>
+              keyToCached(key) = new Cached(entry, 1)
+              entry
+          }
+        case None => entry
+      }
+    }
+
+    log.fine("Shared " + keys.size + " archives of " + entries.size + " classpath entries, cached archives: " + keyToCached.size)
+    (shared, keys)
+  }
+
+  def release(keys: List[Key]): Unit = synchronized {
+    keys foreach { key =>
+      keyToCached.get(key) foreach { cached =>
+        cached.refCount -= 1
+        if (cached.refCount <= 0) {
+          keyToCached -= key
+        }
+      }
+    }
+  }
+
+  /**
+   * Only archives are shared, the directories (output dirs etc) may be changed at any time.
+   */
+  private def keyOf(entry: Entry): Option[Key] = {
+    entry.origin flatMap { path =>
+      val file = new File(path)
+      val name = file.getName.toLowerCase
+      if ((name.endsWith(".jar") || name.endsWith(".zip")) && file.isFile) {
+        Some(Key(file.getCanonicalPath, file.lastModified, file.length))
+      } else None
+    }
+  }
+}
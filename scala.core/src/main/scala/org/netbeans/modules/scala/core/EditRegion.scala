@@ -0,0 +1,136 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.core
+
+import org.netbeans.api.language.util.ast.AstScope
+import org.netbeans.api.lexer.TokenHierarchy
+import org.netbeans.modules.csl.api.ElementKind
+import org.netbeans.modules.parsing.api.Snapshot
+import org.netbeans.modules.scala.core.ast.ScalaRootScope
+
+/**
+ * The text that changed between the snapshot of a previous root and a new one,
+ * when the change is enclosed by the body of one method. If this method has an
+ * explicit result type, only it needs to be typechecked and visited again, the
+ * other items of prevRoot can be moved to their new offsets.
+ *
+ * start and oldEnd are offsets in the previous snapshot, the changed text ends
+ * at oldEnd + delta in the new snapshot.
+ *
+ * @author Caoyuan Deng
+ */
+final case class EditRegion(prevRoot: ScalaRootScope, prevTh: TokenHierarchy[_], member: AstScope, start: Int, oldEnd: Int, delta: Int) {
+  val memberName = member.bindingDfn.get.getName
+  val memberOffset = member.boundsOffset(prevTh)
+  val memberEndOffset = member.boundsEndOffset(prevTh) + delta
+  val newEnd = oldEnd + delta
+
+  /**
+   * @return offset in new snapshot of a token that started at oldOffset with length, or -1 if it was changed
+   */
+  def newOffset(oldOffset: Int, length: Int): Int = EditRegion.newOffset(start, oldEnd, delta, oldOffset, length)
+}
+
+object EditRegion {
+  val isEnabled = !java.lang.Boolean.getBoolean("scala.semantic.region.disabled")
+  /**
+   * Items outside the member get their symbols resolved again, but keep the result
+   * types of the run that created them, so force a full visit after this number of
+   * region runs.
+   */
+  val MaxRuns = Integer.getInteger("scala.semantic.region.maxRuns", 16).intValue
+
+  def find(prevRoot: ScalaRootScope, prevSnapshot: Snapshot, snapshot: Snapshot): Option[EditRegion] = {
+    if (!isEnabled || prevRoot.regionRuns >= MaxRuns) return None
+
+    val prevTh = prevSnapshot.getTokenHierarchy
+    if ((prevTh eq null) || (snapshot.getTokenHierarchy eq null)) return None
+
+    changedRange(prevSnapshot.getText, snapshot.getText) flatMap {
+      case (start, oldEnd, delta) =>
+        findMember(prevRoot, prevTh, start, oldEnd) map { member =>
+          EditRegion(prevRoot, prevTh, member, start, oldEnd, delta)
+        }
+    }
+  }
+
+  /**
+   * @return (start, oldEnd, delta) where [start, oldEnd) of oldText is replaced, delta is the change
+   *         of length, or None if the texts are the same, other sources may have been changed then,
+   *         which needs a full typecheck
+   */
+  private[core] def changedRange(oldText: CharSequence, newText: CharSequence): Option[(Int, Int, Int)] = {
+    val oldLen = oldText.length
+    val newLen = newText.length
+    val minLen = math.min(oldLen, newLen)
+
+    var start = 0
+    while (start < minLen && oldText.charAt(start) == newText.charAt(start)) {
+      start += 1
+    }
+    if (start == oldLen && oldLen == newLen) return None
+
+    var common = 0
+    while (common < minLen - start && oldText.charAt(oldLen - 1 - common) == newText.charAt(newLen - 1 - common)) {
+      common += 1
+    }
+    Some((start, oldLen - common, newLen - oldLen))
+  }
+
+  private[core] def newOffset(start: Int, oldEnd: Int, delta: Int, oldOffset: Int, length: Int): Int = {
+    if (oldOffset + length <= start) oldOffset
+    else if (oldOffset >= oldEnd) oldOffset + delta
+    else -1
+  }
+
+  /**
+   * @return the outermost method scope that strictly encloses [start, end)
+   */
+  private def findMember(scope: AstScope, th: TokenHierarchy[_], start: Int, end: Int): Option[AstScope] = {
+    scope.subScopes find { x => x.boundsOffset(th) < start && end < x.boundsEndOffset(th) } match {
+      case Some(x) => x.bindingDfn match {
+        case Some(dfn) if dfn.kind == ElementKind.METHOD => Some(x)
+        case _ => findMember(x, th, start, end)
+      }
+      case None => None
+    }
+  }
+}
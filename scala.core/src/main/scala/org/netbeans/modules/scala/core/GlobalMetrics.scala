@@ -0,0 +1,210 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.core
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.atomic.{ AtomicInteger, AtomicLong }
+import java.util.logging.{ Logger, Level }
+import javax.management.ObjectName
+
+/**
+ * JMX view of GlobalMetrics
+ */
+trait GlobalMetricsMBean {
+  def getPhaseNames: Array[String]
+  /** one line per phase: "phase count=.. mean=..ms p50=..ms p90=..ms p99=..ms max=..ms" */
+  def getSummary: Array[String]
+  def getQueueDepth: Int
+  def getCancellations: Long
+  def percentile(phase: String, p: Double): Double
+  def reset(): Unit
+}
+
+/**
+ * Per global timing of each stage of the semantic pipeline, kept in a rolling
+ * histogram of the latest samples, plus cancellation count and the number of
+ * requests that were posted to compiler thread but not answered yet.
+ *
+ * Registered as an MBean under "org.netbeans.modules.scala:type=Global,name=...",
+ * except those of detached globals.
+ *
+ * @author Caoyuan Deng
+ */
+class GlobalMetrics private (name: String) extends GlobalMetricsMBean {
+  import GlobalMetrics._
+
+  private val histograms = (Phases map { x => x -> new Histogram(HistogramSize) }).toMap
+  private val cancellations = new AtomicLong
+  private val queueDepth = new AtomicInteger
+
+  private var objectName: Option[ObjectName] = None
+
+  /**
+   * @param startNanos from System.nanoTime
+   */
+  def record(phase: String, startNanos: Long) {
+    histograms.get(phase) foreach { _ add (System.nanoTime - startNanos) }
+  }
+
+  def time[T](phase: String)(op: => T): T = {
+    val start = System.nanoTime
+    try {
+      op
+    } finally {
+      record(phase, start)
+    }
+  }
+
+  /** a request is posted to compiler thread */
+  def enqueued() { queueDepth.incrementAndGet }
+  /** a request posted to compiler thread is answered */
+  def dequeued() { queueDepth.decrementAndGet }
+
+  def cancelled() { cancellations.incrementAndGet }
+
+  override def getPhaseNames: Array[String] = Phases.toArray
+
+  override def getSummary: Array[String] = {
+    (Phases map { phase =>
+      val h = histograms(phase)
+      "%s count=%d mean=%.1fms p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms".format(
+        phase, h.count, h.mean / 1e6, h.percentile(0.5) / 1e6, h.percentile(0.9) / 1e6, h.percentile(0.99) / 1e6, h.max / 1e6)
+    }).toArray
+  }
+
+  override def getQueueDepth: Int = queueDepth.get
+
+  override def getCancellations: Long = cancellations.get
+
+  /** @return in ms */
+  override def percentile(phase: String, p: Double): Double = {
+    histograms.get(phase) map (_.percentile(p) / 1e6) getOrElse -1.0
+  }
+
+  override def reset() {
+    histograms.values foreach (_.reset)
+    cancellations.set(0)
+  }
+
+  private def register() {
+    try {
+      val x = new ObjectName("org.netbeans.modules.scala:type=Global,name=" + ObjectName.quote(name)) // NOI18N
+      ManagementFactory.getPlatformMBeanServer.registerMBean(this, x)
+      objectName = Some(x)
+    } catch {
+      case ex: Exception => log.log(Level.FINE, ex.getMessage, ex)
+    }
+  }
+
+  def unregister() {
+    objectName foreach { x =>
+      try {
+        ManagementFactory.getPlatformMBeanServer.unregisterMBean(x)
+      } catch {
+        case ex: Exception => log.log(Level.FINE, ex.getMessage, ex)
+      }
+    }
+    objectName = None
+  }
+}
+
+object GlobalMetrics {
+  private val log = Logger.getLogger(classOf[GlobalMetrics].getName)
+
+  val Reload = "askReload"
+  val LoadedTyped = "askLoadedTyped"
+  val TypeAt = "askTypeAt"
+  val AstVisit = "astVisit"
+  val CollectErrors = "collectErrors"
+
+  val Phases = List(Reload, LoadedTyped, TypeAt, AstVisit, CollectErrors)
+
+  private val HistogramSize = 512
+  private val ids = new AtomicInteger
+
+  def apply(projectName: String, registered: Boolean = true): GlobalMetrics = {
+    val name = (if (projectName == "") "<default>" else projectName) + "#" + ids.incrementAndGet
+    val metrics = new GlobalMetrics(name)
+    if (registered) metrics.register()
+    metrics
+  }
+
+  /**
+   * Rolling histogram that keeps the latest `size` samples
+   */
+  private class Histogram(size: Int) {
+    private val samples = new Array[Long](size)
+    private var total = 0L // number of samples ever added
+
+    def add(x: Long): Unit = synchronized {
+      samples((total % size).toInt) = x
+      total += 1
+    }
+
+    def count: Long = synchronized { total }
+
+    private def latest: Array[Long] = synchronized {
+      java.util.Arrays.copyOf(samples, math.min(total, size).toInt)
+    }
+
+    def mean: Double = {
+      val xs = latest
+      if (xs.length == 0) 0.0 else xs.sum.toDouble / xs.length
+    }
+
+    def max: Double = {
+      val xs = latest
+      if (xs.length == 0) 0.0 else xs.max.toDouble
+    }
+
+    def percentile(p: Double): Double = {
+      val xs = latest
+      if (xs.length == 0) 0.0 else {
+        java.util.Arrays.sort(xs)
+        xs(math.min(xs.length - 1, (p * xs.length).toInt)).toDouble
+      }
+    }
+
+    def reset(): Unit = synchronized {
+      total = 0
+    }
+  }
+}
@@ -39,7 +39,9 @@
 package org.netbeans.modules.scala.core
 
 import java.io.File
+import java.lang.management.{ ManagementFactory, MemoryNotificationInfo, MemoryType }
 import java.util.logging.{ Logger, Level }
+import javax.management.{ Notification, NotificationEmitter, NotificationListener }
 import org.netbeans.api.java.classpath.ClassPath
 import org.netbeans.api.project.{ FileOwnerQuery, Project }
 import org.openide.filesystems.FileChangeAdapter
@@ -59,8 +61,13 @@ import org.netbeans.modules.scala.core.element.ScalaElements
 import org.netbeans.modules.scala.core.element.JavaElements
 import org.netbeans.modules.scala.core.interactive.Global
 import scala.collection.mutable
+import scala.reflect.io.AbstractFile
 import scala.tools.nsc.Settings
-import scala.tools.nsc.reporters.Reporter
+import scala.tools.nsc.backend.JavaPlatform
+import scala.tools.nsc.interactive.MissingResponse
+import scala.tools.nsc.util.{ ClassPath => ScalaClassPath, DeltaClassPath, MergedClassPath }
+import scala.tools.util.PathResolver
+import scala.tools.nsc.reporters.{ Reporter, StoreReporter }
 import scala.reflect.internal.util.{ Position, SourceFile }
 
 /**
@@ -90,7 +97,10 @@ case class ErrorReporter(var errors: List[ScalaError] = Nil) extends Reporter {
   }
 }
 
-class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String = "") extends Global(_settings, _reporter, projectName)
+/**
+ * @param isDetached not cached by ScalaGlobal object, nor registered to JMX, @see ScalaGlobal#createDetachedGlobal
+ */
+class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String = "", val isDetached: Boolean = false) extends Global(_settings, _reporter, projectName)
     with ScalaAstVisitor
     with ScalaItems
     with ScalaDfns
@@ -106,6 +116,80 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
 
   private val sourceToResponse = new java.util.concurrent.ConcurrentHashMap[SourceFile, Response[_]]
 
+  val metrics = GlobalMetrics(projectName, !isDetached)
+
+  @volatile private var sharedClassPathKeys: List[ClassPathCache.Key] = Nil
+
+  /**
+   * Use the archive entries shared via ClassPathCache instead of creating them per global.
+   * @see scala.tools.nsc.backend.JavaPlatform
+   */
+  override lazy val platform: ThisPlatform = new {
+    val global: ScalaGlobal.this.type = ScalaGlobal.this
+  } with JavaPlatform {
+    private var _classPath: ScalaClassPath[AbstractFile] = _
+
+    override def classPath: ScalaClassPath[AbstractFile] = {
+      if (_classPath eq null) {
+        val resolved = new PathResolver(settings).result
+        val (entries, keys) = ClassPathCache.acquire(resolved.entries)
+        sharedClassPathKeys = keys
+        _classPath = new MergedClassPath[AbstractFile](entries, resolved.context)
+      }
+      _classPath
+    }
+
+    override def updateClassPath(subst: Map[ScalaClassPath[AbstractFile], ScalaClassPath[AbstractFile]]) {
+      classPath match {
+        case x: MergedClassPath[AbstractFile @unchecked] => _classPath = new DeltaClassPath(x, subst)
+        case _ =>
+      }
+    }
+  }
+
+  val createdTime = System.currentTimeMillis
+  @volatile private var _lastAccessedTime = createdTime
+  def lastAccessedTime = _lastAccessedTime
+  def touch() { _lastAccessedTime = System.currentTimeMillis }
+
+  @volatile private[core] var lastWarmStartRecorded = 0L
+
+  @volatile private var _isShutdown = false
+  def isShutdown = _isShutdown
+
+  override def askShutdown() {
+    val wasShutdown = synchronized {
+      val x = _isShutdown
+      _isShutdown = true
+      x
+    }
+    super.askShutdown()
+    ClassPathCache.release(sharedClassPathKeys)
+    sharedClassPathKeys = Nil
+    metrics.unregister()
+    if (!wasShutdown) ScalaGlobal.fireShutdown(this)
+  }
+
+  /**
+   * All ask* of CompilerControl (askReload, askTypeCompletion, askLinkPos etc) come here,
+   * which keep this global alive while used, and get a MissingResponse at once if it has
+   * been shut down, instead of waiting for a compiler thread that won't answer.
+   */
+  override protected def postWorkItem(item: WorkItem) {
+    touch()
+    if (isShutdown) item.raiseMissing() else super.postWorkItem(item)
+  }
+
+  /** @see postWorkItem */
+  override def askForResponse[A](op: () => A): Response[A] = {
+    touch()
+    if (isShutdown) {
+      val r = new Response[A]
+      r raise new MissingResponse
+      r
+    } else super.askForResponse(op)
+  }
+
   protected def isCancelled(srcFile: SourceFile) = {
     sourceToResponse.get(srcFile) match {
       case null => false
@@ -130,11 +214,74 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
     resetReporter
 
     val resp = new Response[Unit]
-    askReload(srcFiles, resp)
+    val start = System.nanoTime
+    metrics.enqueued()
+    try {
+      askReload(srcFiles, resp)
 
-    resp.get match {
-      case Left(_)   =>
-      case Right(ex) => processGlobalException(ex)
+      resp.get match {
+        case Left(_)   =>
+        case Right(ex) => processGlobalException(ex)
+      }
+      metrics.record(GlobalMetrics.Reload, start)
+    } finally {
+      metrics.dequeued()
+    }
+  }
+
+  /** the snapshot that askForLoad has posted last */
+  @volatile private var loadedSnapshot = new java.lang.ref.WeakReference[AnyRef](null)
+
+  /**
+   * Load srcFile for completion, which then typechecks only the tree around the completion
+   * position. The reporter is not reset, a semantic pass may be collecting errors there.
+   *
+   * A snapshot that has been posted is not reloaded by the next completion queries. The requests
+   * posted after the load are served after it anyway, so waiting is only to record the timing.
+   *
+   * @param timeout in milliseconds to wait for loading, 0 to wait until loaded
+   */
+  def askForLoad(srcFile: ScalaSourceFile, timeout: Long) {
+    if (isShutdown) return
+
+    val snapshot = srcFile.snapshot
+    if (loadedSnapshot.get eq snapshot) return
+
+    val resp = new Response[Unit]
+    val start = System.nanoTime
+    metrics.enqueued()
+    try {
+      askReload(List(srcFile), resp)
+      loadedSnapshot = new java.lang.ref.WeakReference[AnyRef](snapshot)
+
+      (if (timeout > 0) resp.get(timeout) else Some(resp.get)) match {
+        case Some(Left(_)) => metrics.record(GlobalMetrics.Reload, start)
+        case Some(Right(ex)) =>
+          loadedSnapshot = new java.lang.ref.WeakReference[AnyRef](null)
+          processGlobalException(ex)
+        case None => log1.fine("Loading " + srcFile.path + " takes more than " + timeout + "ms")
+      }
+    } finally {
+      metrics.dequeued()
+    }
+  }
+
+  /**
+   * Post a request via `post`, then wait for its response, with the timing recorded to metrics
+   * @return None when cancelled
+   */
+  private def waitFor[T](phase: String, srcFile: SourceFile, resp: Response[T])(post: => Unit): Option[Either[T, Throwable]] = {
+    val start = System.nanoTime
+    metrics.enqueued()
+    try {
+      post
+      if (isCancelled(srcFile)) None else {
+        val result = resp.get
+        metrics.record(phase, start)
+        Some(result)
+      }
+    } finally {
+      metrics.dequeued()
     }
   }
 
@@ -144,34 +291,41 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
    * @return    Some root when everything goes smooth
    *            Empty root when exception happens
    *            None when cancelled
+   *
+   * @param region if defined, try to typecheck and visit only the member that encloses it
    */
-  def askForSemantic(srcFile: ScalaSourceFile): Option[ScalaRootScope] = {
+  def askForSemantic(srcFile: ScalaSourceFile, region: Option[EditRegion] = None): Option[ScalaRootScope] = {
+    // may have been evicted, the compiler thread won't answer any more
+    if (isShutdown) return Some(ScalaRootScope.EMPTY)
+
     resetReporter // is reporter thread safe? or, since it's a global report, do not need to care.
     qualToRecoveredType.clear
 
     try {
       val loadResp = newResponse[Unit](srcFile)
-      askReload(List(srcFile), loadResp)
-      if (isCancelled(srcFile)) return None
-      loadResp.get match {
-        case Left(_) =>
-          val typeResp = newResponse[Tree](srcFile)
-          askLoadedTyped(srcFile, typeResp)
+      waitFor(GlobalMetrics.Reload, srcFile, loadResp) { askReload(List(srcFile), loadResp) } match {
+        case None => None
+        case Some(Left(_)) =>
+          region flatMap { askForRegionSemantic(srcFile, _) } foreach { root => return Some(root) }
           if (isCancelled(srcFile)) return None
-          typeResp.get match {
-            case Left(rootTree) =>
+
+          val typeResp = newResponse[Tree](srcFile)
+          waitFor(GlobalMetrics.LoadedTyped, srcFile, typeResp) { askLoadedTyped(srcFile, typeResp) } match {
+            case None => None
+            case Some(Left(rootTree)) =>
               val rootResp = newResponse[Option[ScalaRootScope]](srcFile)
-              askSemanticRoot(srcFile, rootTree, rootResp)
-              if (isCancelled(srcFile)) return None
-              rootResp get match {
-                case Left(x)   => x
-                case Right(ex) => processGlobalException(ex, Some(ScalaRootScope.EMPTY))
+              waitFor(GlobalMetrics.AstVisit, srcFile, rootResp) { askSemanticRoot(srcFile, rootTree, rootResp) } match {
+                case None => None
+                case Some(Left(x)) =>
+                  if (x.isDefined && !isDetached) WarmStart.recordIfNeeded(this)
+                  x
+                case Some(Right(ex)) => processGlobalException(ex, Some(ScalaRootScope.EMPTY))
               }
 
-            case Right(ex) => processGlobalException(ex, Some(ScalaRootScope.EMPTY))
+            case Some(Right(ex)) => processGlobalException(ex, Some(ScalaRootScope.EMPTY))
           }
 
-        case Right(ex) => processGlobalException(ex, Some(ScalaRootScope.EMPTY))
+        case Some(Right(ex)) => processGlobalException(ex, Some(ScalaRootScope.EMPTY))
       }
 
     } finally {
@@ -179,8 +333,102 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
     }
   }
 
+  /**
+   * Parse srcFile without loading it into the compiler or typechecking, and visit the
+   * definitions only.
+   * @return ScalaRootScope.EMPTY if parsing fails
+   */
+  def askForStructure(srcFile: ScalaSourceFile): ScalaRootScope = {
+    if (isShutdown) return ScalaRootScope.EMPTY
+
+    // * not via newResponse, which would replace the response of a running semantic pass on srcFile
+    val resp = new Response[ScalaRootScope]
+    askForResponse(resp) { () =>
+      // * do not report syntax errors to the reporter that is collecting for semantic pass
+      val tree = new StoreUnitParser(new CompilationUnit(srcFile), new StoreReporter).parse()
+      astVisitSyntax(srcFile, tree)
+    }
+
+    resp.get match {
+      case Left(x)   => x
+      case Right(ex) => processGlobalException(ex, ScalaRootScope.EMPTY)
+    }
+  }
+
+  /**
+   * Parse srcFile without loading it into the compiler or typechecking, and collect
+   * what ScalaIndexer stores.
+   * @return no items if parsing fails
+   */
+  def askForIndexItems(srcFile: ScalaSourceFile): ScalaIndexer.Items = {
+    if (isShutdown) return new ScalaIndexer.Items
+
+    val resp = new Response[ScalaIndexer.Items]
+    askForResponse(resp) { () =>
+      val tree = new StoreUnitParser(new CompilationUnit(srcFile), new StoreReporter).parse()
+      indexItems(tree)
+    }
+
+    resp.get match {
+      case Left(x)   => x
+      case Right(ex) => processGlobalException(ex, new ScalaIndexer.Items)
+    }
+  }
+
+  /**
+   * A unit parser that reports to its own reporter instead of the global one. The scanner
+   * reports via its parser too.
+   */
+  private class StoreUnitParser(_unit: CompilationUnit, storeReporter: StoreReporter) extends syntaxAnalyzer.UnitParser(_unit) {
+    override def warning(offset: Int, msg: String) { storeReporter.warning(o2p(offset), msg) }
+    override def deprecationWarning(offset: Int, msg: String) { storeReporter.warning(o2p(offset), msg) }
+    override def syntaxError(offset: Int, msg: String) { storeReporter.error(o2p(offset), msg) }
+    override def incompleteInputError(msg: String) { storeReporter.error(o2p(source.content.length - 1), msg) }
+  }
+
+  /**
+   * Typecheck the unit only until the member that encloses region, then visit this member
+   * and move all other items of the previous root.
+   *
+   * Only a member with explicit result type is done so, otherwise, the change of its body may
+   * change its type, thus the types and errors of its callers.
+   * @return None if the new member does not match region, a full semantic pass is needed then
+   */
+  private def askForRegionSemantic(srcFile: ScalaSourceFile, region: EditRegion): Option[ScalaRootScope] = {
+    val pos = rangePos(srcFile, region.memberOffset, region.memberOffset, region.memberEndOffset)
+    val typeResp = newResponse[Tree](srcFile)
+    waitFor(GlobalMetrics.TypeAt, srcFile, typeResp) { askTypeAt(pos, typeResp) } match {
+      case Some(Left(tree @ DefDef(_, name, _, _, tpt, rhs))) if name.decode == region.memberName && isExplicitType(tpt) &&
+        rhs.pos.isRange && rhs.pos.start <= region.start && region.newEnd <= rhs.pos.end =>
+        val rootResp = newResponse[Option[ScalaRootScope]](srcFile)
+        waitFor(GlobalMetrics.AstVisit, srcFile, rootResp) {
+          askForResponse(rootResp) { () =>
+            if (isCancelled(srcFile)) None else astVisitRegion(srcFile, tree, region)
+          }
+        } match {
+          case Some(Left(x))   => x
+          case Some(Right(ex)) => processGlobalException(ex, None)
+          case None            => None
+        }
+
+      case Some(Right(ex)) => processGlobalException(ex, None)
+      case _               => None
+    }
+  }
+
+  /**
+   * An inferred result type is a TypeTree without original after typer, an explicit one is
+   * the typed type tree itself, or a TypeTree with its original.
+   */
+  private def isExplicitType(tpt: Tree) = tpt match {
+    case x: TypeTree => x.original ne null
+    case _           => !tpt.isEmpty
+  }
+
   def processGlobalException[T](ex: Throwable, toReturn: T = ()): T = {
     ex match {
+      case _: MissingResponse => // has been shut down, @see postWorkItem
+        log1.fine("Global has been shut down")
       case _: AssertionError =>
         /**
          * @Note: avoid scala nsc's assert error. Since global's
@@ -188,7 +436,8 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
          * to clean this global
          */
         log1.log(Level.WARNING, ex.getMessage, ex)
-        ScalaGlobal.resetLate(this, ex)
+        // * a detached global is owned by its caller, who will create another one when found shut down
+        if (isDetached) askShutdown() else ScalaGlobal.resetLate(this, ex)
       case _: java.lang.Error => // avoid scala nsc's Error error
         log1.log(Level.WARNING, ex.getMessage, ex)
       case _: Throwable => // just ignore all ex
@@ -213,7 +462,11 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
    *  Also @see scala.tools.nsc.interactive.CompilerControl#askForResponse
    */
   protected def askForResponse[A](r: Response[A])(op: () => A) = {
-    if (onCompilerThread) {
+    touch()
+    if (isShutdown) {
+      r raise new MissingResponse
+      r
+    } else if (onCompilerThread) {
       try { r set op() }
       catch { case exc: Throwable => r raise exc }
       r
@@ -227,6 +480,24 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
     }
   }
 
+  /**
+   * Invalidate the symbols that were loaded from the classpath entries of paths, they
+   * will be re-entered from the current content of these entries. Much cheaper than
+   * a reset of whole global when only some class files in out dirs changed.
+   *
+   * @return false if failed, the caller should reset this global then.
+   */
+  def askForInvalidateClassPathEntries(paths: List[String]): Boolean = {
+    askForResponse { () =>
+      invalidateClassPathEntries(paths: _*)
+    } get match {
+      case Left(_) =>
+        log1.info("Invalidated classpath entries: " + paths.mkString(", "))
+        true
+      case Right(ex) => processGlobalException(ex, false)
+    }
+  }
+
   /**
    * @return will cancel or not
    */
@@ -234,6 +505,7 @@ class ScalaGlobal(_settings: Settings, _reporter: Reporter, projectName: String
     if (srcFile != null && sourceToResponse.containsKey(srcFile)) {
       sourceToResponse.remove(srcFile)
       log1.info("Will cancel semantic " + srcFile.path)
+      metrics.cancelled()
       true
     } else {
       log1.info("Won't cancel semantic " + srcFile.path + ", since it's not under semantic.")
@@ -298,9 +570,120 @@ object ScalaGlobal {
   private var _globalForStdLib: Option[ScalaGlobal] = None
   private var toResetGlobals = Set[ScalaGlobal]()
 
+  /** called with each global once it's shut down, @see addShutdownListener */
+  private val shutdownListeners = new java.util.concurrent.CopyOnWriteArrayList[ScalaGlobal => Unit]
+
+  /**
+   * Caches outside of a global, such as those of completion, that keep its symbols should
+   * drop them when it's shut down, otherwise the evicted global stays reachable.
+   */
+  def addShutdownListener(listener: ScalaGlobal => Unit) {
+    shutdownListeners.add(listener)
+  }
+
+  private def fireShutdown(global: ScalaGlobal) {
+    val itr = shutdownListeners.iterator
+    while (itr.hasNext) {
+      try {
+        itr.next()(global)
+      } catch {
+        case ex: Throwable => log.log(Level.WARNING, ex.getMessage, ex)
+      }
+    }
+  }
+
   case class NormalReason(msg: String) extends Throwable(msg)
   object userRequest extends NormalReason("User's action")
   object compCpChanged extends NormalReason("Change of compile classpath")
+  object idleEvicted extends NormalReason("Idle for long time")
+  object lowMemory extends NormalReason("Low memory")
+
+  /** max number of live project globals, could be set by -Dscala.global.max=n */
+  private val MaxGlobals: Int = Integer.getInteger("scala.global.max", 8)
+  /** idle time before a project global is shut down, could be set by -Dscala.global.idle.minutes=n */
+  private val IdleTimeout = Integer.getInteger("scala.global.idle.minutes", 30).longValue * 60 * 1000
+  /** usage of tenured heap pool after a collection that is considered as low memory */
+  private val LowMemoryRatio = 0.85
+
+  private val evictRP = new RequestProcessor(classOf[ScalaGlobal].getName + ".evict", 1)
+  private lazy val idleEvictTask = {
+    val task = evictRP.create(new Runnable {
+      def run {
+        evictIdleGlobals
+        idleEvictTask.schedule(60 * 1000)
+      }
+    })
+    task.schedule(60 * 1000)
+    task
+  }
+
+  /**
+   * Listen to the collection usage threshold of tenured heap pool, that is, the usage
+   * right after a gc, shut down least recently used globals when exceeded. The threshold
+   * is JVM wide, so set it only if no one else did, and check the ratio by ourselves on
+   * notification.
+   */
+  private lazy val lowMemoryWatcher: Unit = {
+    val pools = ManagementFactory.getMemoryPoolMXBeans.toArray(new Array[java.lang.management.MemoryPoolMXBean](0))
+    // * only tenured pool supports both usage and collection usage threshold
+    pools find { x =>
+      x.getType == MemoryType.HEAP && x.isUsageThresholdSupported && x.isCollectionUsageThresholdSupported && x.getUsage.getMax > 0
+    } foreach { tenured =>
+      val lowMemory = (tenured.getUsage.getMax * LowMemoryRatio).toLong
+      if (tenured.getCollectionUsageThreshold == 0) {
+        tenured.setCollectionUsageThreshold(lowMemory)
+      }
+      ManagementFactory.getMemoryMXBean match {
+        case emitter: NotificationEmitter =>
+          emitter.addNotificationListener(new NotificationListener {
+            def handleNotification(notification: Notification, handback: AnyRef) {
+              if (notification.getType == MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED) {
+                val usage = tenured.getCollectionUsage
+                if ((usage ne null) && usage.getUsed >= lowMemory) {
+                  evictRP.post(new Runnable {
+                    def run { evictOnLowMemory }
+                  })
+                }
+              }
+            }
+          }, null, null)
+        case _ =>
+      }
+    }
+  }
+
+  private def liveGlobals: List[ScalaGlobal] = synchronized {
+    (projectToGlobals.values flatMap (_.keys)).toList sortBy (_.lastAccessedTime)
+  }
+
+  private def evict(globals: List[ScalaGlobal], reason: Throwable) = synchronized {
+    if (!globals.isEmpty) {
+      globals foreach { resetLate(_, reason) }
+      resetBadGlobals
+    }
+  }
+
+  private def evictIdleGlobals {
+    val now = System.currentTimeMillis
+    evict(liveGlobals filter { now - _.lastAccessedTime > IdleTimeout }, idleEvicted)
+  }
+
+  /**
+   * Keep the most recently used one, evict the least recently used half of others
+   */
+  private def evictOnLowMemory {
+    val globals = liveGlobals
+    val lrus = globals take math.max(globals.size / 2, math.min(globals.size - 1, 1))
+    log.warning("Low memory, will shut down " + lrus.size + " of " + globals.size + " globals")
+    evict(lrus, lowMemory)
+  }
+
+  private def evictOverCap(keep: ScalaGlobal) {
+    val globals = liveGlobals filter (_ ne keep)
+    if (globals.size >= MaxGlobals) {
+      evict(globals take (globals.size - MaxGlobals + 1), idleEvicted)
+    }
+  }
 
   def resetLate(global: ScalaGlobal, reason: Throwable) = synchronized {
     reason match {
@@ -358,6 +741,7 @@ object ScalaGlobal {
     case None =>
       val g = ScalaHome.getGlobalForStdLib
       _globalForStdLib = Some(g)
+      WarmStart.restore(g)
       g
   }
 
@@ -365,6 +749,12 @@ object ScalaGlobal {
    * Scala's global is not thread safed
    */
   def getGlobal(fo: FileObject): ScalaGlobal = synchronized {
+    val global = getOrCreateGlobal(fo)
+    global.touch()
+    global
+  }
+
+  private def getOrCreateGlobal(fo: FileObject): ScalaGlobal = {
     resetBadGlobals
 
     val isArchiveFile = FileUtil.isArchiveFile(fo)
@@ -397,6 +787,72 @@ object ScalaGlobal {
 
     // ----- need to create a new global:
 
+    val bootCp = ClassPath.getClassPath(fo, ClassPath.BOOT)
+    val compCp = ClassPath.getClassPath(fo, ClassPath.COMPILE)
+    val srcCp = ClassPath.getClassPath(fo, ClassPath.SOURCE)
+
+    val global = createGlobal(project, bootCp, compCp, srcCp)
+    if (srcCp != null) {
+      projectToGlobals.getOrElseUpdate(project, new mutable.HashMap[ScalaGlobal, ClassPath]) += (global -> srcCp)
+    }
+    WarmStart.restore(global)
+    lowMemoryWatcher
+    idleEvictTask
+    evictOverCap(global)
+
+    // listen to compCp's change
+    if (compCp != null) {
+      val compCpListener = new CompCpListener(global, compCp)
+
+      globalToListeners += (global -> (compCpListener :: globalToListeners.getOrElse(global, Nil)))
+      project.getProjectDirectory.getFileSystem.addFileChangeListener(compCpListener)
+    }
+
+    if (srcCp != null) {
+      log.info(srcCp.getRoots.map(_.getPath).mkString("Project's srcCp: [", ", ", "]"))
+
+      val srcCpListener = new SrcCpListener(global, srcCp)
+      globalToListeners += (global -> (srcCpListener :: globalToListeners.getOrElse(global, Nil)))
+      project.getProjectDirectory.getFileSystem.addFileChangeListener(srcCpListener)
+
+      // we have to do following step to get mixed java sources visible to scala sources
+      // since scala 2.10.0, this does not seem to be necessary.
+
+      // should push java srcs before scala srcs
+      // push scala src files to get classes that with different name from file name to be recognized properly
+      // the reporter should be set previous, otherwise, no java source is resolved, may throw exception already.
+      //val (javaSrcs, scalaSrcs) = ProjectResources.findAllSources(srcCp)
+      //val srcFiles = (javaSrcs ++ scalaSrcs).toList map toSourceFile
+      //global askForReload srcFiles
+    } else {
+      log.warning("Project's srcCp is null !")
+    }
+
+    log.info("Project's global.settings: " + global.settings)
+    global
+  }
+
+  /**
+   * Create a detached global for `fo`, which is not cached, not listening to any
+   * file change, and should be used for batch read-only tasks, for example, to
+   * typecheck a partition of files during refactoring. The caller is responsible
+   * to call askShutdown on it when done, and should use source files that are got
+   * from ScalaSourceFile.detachedSourceFileOf, which are not shared with editors.
+   *
+   * @return None if `fo` is not owned by any project
+   */
+  def createDetachedGlobal(fo: FileObject): Option[ScalaGlobal] = {
+    val project = FileOwnerQuery.getOwner(fo)
+    if (project == null) return None
+
+    val bootCp = ClassPath.getClassPath(fo, ClassPath.BOOT)
+    val compCp = ClassPath.getClassPath(fo, ClassPath.COMPILE)
+    val srcCp = ClassPath.getClassPath(fo, ClassPath.SOURCE)
+
+    Some(createGlobal(project, bootCp, compCp, srcCp, true))
+  }
+
+  private def createGlobal(project: Project, bootCp: ClassPath, compCp: ClassPath, srcCp: ClassPath, isDetached: Boolean = false): ScalaGlobal = {
     val settings = new Settings
     if (debug) {
       settings.Yidedebug.value = true
@@ -408,10 +864,6 @@ object ScalaGlobal {
       settings.verbose.value = false
     }
 
-    val bootCp = ClassPath.getClassPath(fo, ClassPath.BOOT)
-    val compCp = ClassPath.getClassPath(fo, ClassPath.COMPILE)
-    val srcCp = ClassPath.getClassPath(fo, ClassPath.SOURCE)
-
     // in case of `fo` is in standard libaray jar
     val inStdLib = bootCp == null || compCp == null
 
@@ -465,53 +917,117 @@ object ScalaGlobal {
     // Setter of Global.reporter is useless due to interative.Global's direct reference
     // to the constructor's param reporter, so we have to make sure only one reporter
     // is assigned to Global (during create new instance)
-    val global = new ScalaGlobal(settings, ErrorReporter())
-    if (srcCp != null) {
-      projectToGlobals.getOrElseUpdate(project, new mutable.HashMap[ScalaGlobal, ClassPath]) += (global -> srcCp)
+    new ScalaGlobal(settings, ErrorReporter(), project.getProjectDirectory.getNameExt, isDetached)
+  }
+
+  private def toSourceFile(fo: FileObject): ScalaSourceFile = {
+    val sourceFile = ScalaSourceFile.sourceFileOf(fo)
+    sourceFile.refreshSnapshot
+    sourceFile
+  }
+
+  private val reloadRP = new RequestProcessor(classOf[ScalaGlobal].getName + ".reload", 1)
+
+  /** quiet period to wait for more file events before a batched reload */
+  private[core] val ReloadDelay = 300
+  /** max delay of a pending reload under continuous file events */
+  private[core] val MaxReloadDelay = 2000
+
+  /**
+   * Pending files of a ReloadQueue, the latest event of a file wins.
+   */
+  private[core] final class ReloadBatch[T] {
+    private val toReload = new java.util.LinkedHashSet[T]
+    private val toDelete = new java.util.LinkedHashSet[T]
+    private var firstPendingTime = 0L
+
+    /** @return delay to flush in milliseconds */
+    def reload(x: T, now: Long): Int = synchronized {
+      toDelete.remove(x)
+      toReload.add(x)
+      delayAt(now)
     }
 
-    // listen to compCp's change
-    if (compCp != null) {
-      val compCpListener = new CompCpListener(global, compCp)
+    /** @return delay to flush in milliseconds */
+    def delete(x: T, now: Long): Int = synchronized {
+      toReload.remove(x)
+      toDelete.add(x)
+      delayAt(now)
+    }
 
-      globalToListeners += (global -> (compCpListener :: globalToListeners.getOrElse(global, Nil)))
-      project.getProjectDirectory.getFileSystem.addFileChangeListener(compCpListener)
+    private def delayAt(now: Long): Int = {
+      if (firstPendingTime == 0) {
+        firstPendingTime = now
+      }
+      if (now - firstPendingTime >= MaxReloadDelay) 0 else ReloadDelay
     }
 
-    if (srcCp != null) {
-      log.info(srcCp.getRoots.map(_.getPath).mkString("Project's srcCp: [", ", ", "]"))
+    /** @return (reloads, deletes) in the order they came first, and clear them */
+    def drain(): (List[T], List[T]) = synchronized {
+      val xs = toList(toReload)
+      val ys = toList(toDelete)
+      toReload.clear
+      toDelete.clear
+      firstPendingTime = 0
+      (xs, ys)
+    }
 
-      val srcCpListener = new SrcCpListener(global, srcCp)
-      globalToListeners += (global -> (srcCpListener :: globalToListeners.getOrElse(global, Nil)))
-      project.getProjectDirectory.getFileSystem.addFileChangeListener(srcCpListener)
+    private def toList(xs: java.util.Set[T]): List[T] = {
+      val ys = new mutable.ListBuffer[T]
+      val itr = xs.iterator
+      while (itr.hasNext) {
+        ys += itr.next
+      }
+      ys.toList
+    }
+  }
 
-      // we have to do following step to get mixed java sources visible to scala sources
-      // since scala 2.10.0, this does not seem to be necessary.
+  /**
+   * Coalesces the file events of a global, de-duplicates the files, then issues one
+   * batched reload (and one batched delete) after the events quiet down, instead of
+   * one blocking reload per event, which freezes the editor on git checkout or
+   * code generation.
+   */
+  private class ReloadQueue(global: ScalaGlobal) {
+    private val batch = new ReloadBatch[FileObject]
+    private val task = reloadRP.create(new Runnable {
+      def run { flush }
+    })
+
+    def reload(fo: FileObject) {
+      task.schedule(batch.reload(fo, System.currentTimeMillis))
+    }
 
-      // should push java srcs before scala srcs
-      // push scala src files to get classes that with different name from file name to be recognized properly
-      // the reporter should be set previous, otherwise, no java source is resolved, may throw exception already.
-      //val (javaSrcs, scalaSrcs) = ProjectResources.findAllSources(srcCp)
-      //val srcFiles = (javaSrcs ++ scalaSrcs).toList map toSourceFile
-      //global askForReload srcFiles
-    } else {
-      log.warning("Project's srcCp is null !")
+    def delete(fo: FileObject) {
+      task.schedule(batch.delete(fo, System.currentTimeMillis))
     }
 
-    log.info("Project's global.settings: " + global.settings)
-    global
-  }
+    private def flush {
+      val (reloads, deletes) = batch.drain()
 
-  private def toSourceFile(fo: FileObject): ScalaSourceFile = {
-    val sourceFile = ScalaSourceFile.sourceFileOf(fo)
-    sourceFile.refreshSnapshot
-    sourceFile
+      if (global.isShutdown) return
+
+      if (!deletes.isEmpty) {
+        val resp = new global.Response[Unit]
+        global askFilesDeleted (deletes map toSourceFile, resp)
+        resp.get match {
+          case Left(_)   =>
+          case Right(ex) => global.processGlobalException(ex)
+        }
+      }
+
+      if (!reloads.isEmpty) {
+        log.fine("Batched reload of " + reloads.size + " files")
+        global askForReload (reloads filter (_.isValid) map toSourceFile)
+      }
+    }
   }
 
   private class SrcCpListener(global: ScalaGlobal, srcCp: ClassPath) extends FileChangeAdapter {
     val JavaMimeType = "text/x-java"
     val ScalaMimeType = "text/x-scala"
     val srcRoots = srcCp.getRoots
+    private val reloadQueue = new ReloadQueue(global)
 
     private def isUnderSrcDir(fo: FileObject) = {
       srcRoots exists { x => FileUtil.isParentOf(x, fo) }
@@ -525,39 +1041,47 @@ object ScalaGlobal {
     override def fileDataCreated(fe: FileEvent) {
       val fo = fe.getFile
       if (isInterestedMime(fo.getMIMEType) && isUnderSrcDir(fo) && global != null) {
-        global askForReload List(toSourceFile(fo))
+        reloadQueue reload fo
       }
     }
 
     override def fileChanged(fe: FileEvent) {
       val fo = fe.getFile
       if (isInterestedMime(fo.getMIMEType) && isUnderSrcDir(fo) && global != null) {
-        global askForReload List(toSourceFile(fo))
+        reloadQueue reload fo
       }
     }
 
     override def fileRenamed(fe: FileRenameEvent) {
       val fo = fe.getFile
       if (isInterestedMime(fo.getMIMEType) && isUnderSrcDir(fo) && global != null) {
-        global askForReload List(toSourceFile(fo))
+        reloadQueue reload fo
       }
     }
 
     override def fileDeleted(fe: FileEvent) {
       val fo = fe.getFile
       if (isInterestedMime(fo.getMIMEType) && isUnderSrcDir(fo) && global != null) {
-        val resp = new global.Response[Unit]
-        global askFilesDeleted (List(toSourceFile(fo)), resp)
-        resp.get match {
-          case Left(_)   =>
-          case Right(ex) => global.processGlobalException(ex)
-        }
+        reloadQueue delete fo
       }
     }
   }
 
+  /**
+   * Changes of class files under directory roots of compCp (usually the out dirs of
+   * dependent modules) only invalidate the symbols loaded from these roots, batched
+   * over a short window since a compile rewrites lots of class files at once.
+   * Changes of archive roots or of the roots themselves still cause a full reset.
+   */
   private class CompCpListener(global: ScalaGlobal, compCp: ClassPath) extends FileChangeAdapter {
     val compRoots = compCp.getRoots
+    private val archiveFiles = compRoots flatMap { x => Option(FileUtil.getArchiveFile(x)) }
+    private val dirRoots = compRoots filter { x => FileUtil.getArchiveFile(x) eq null }
+
+    private val changedRoots = new java.util.LinkedHashSet[FileObject]
+    private val invalidateTask = reloadRP.create(new Runnable {
+      def run { invalidateChangedRoots }
+    })
 
     private def isUnderCompCp(fo: FileObject) = {
       // when there are series of folder/file created, only top created folder can be listener
@@ -566,44 +1090,62 @@ object ScalaGlobal {
       found isDefined
     }
 
-    override def fileFolderCreated(fe: FileEvent) {
-      val fo = fe.getFile
-      if (isUnderCompCp(fo) && (global ne null)) {
-        log.finest("folder created: " + fo)
+    private def isCompCpArchive(fo: FileObject) = archiveFiles exists (_ == fo)
+
+    private def dirRootOf(fo: FileObject) = dirRoots find { x => FileUtil.isParentOf(x, fo) }
+
+    private def isClassFile(fo: FileObject) = fo.isFolder || fo.getExt == "class"
+
+    private def onChange(fo: FileObject, what: String) {
+      if (global eq null) return
+
+      if (isUnderCompCp(fo) || isCompCpArchive(fo)) {
+        log.finest(what + ": " + fo)
         resetLate(global, compCpChanged)
+      } else if (isClassFile(fo)) {
+        dirRootOf(fo) foreach { root =>
+          log.finest(what + ": " + fo + ", will invalidate " + root)
+          changedRoots synchronized {
+            changedRoots.add(root)
+          }
+          invalidateTask.schedule(ReloadDelay)
+        }
       }
     }
 
-    override def fileDataCreated(fe: FileEvent) {
-      val fo = fe.getFile
-      if (isUnderCompCp(fo) && (global ne null)) {
-        log.finest("data created: " + fo)
+    private def invalidateChangedRoots {
+      val roots = changedRoots synchronized {
+        val xs = changedRoots.toArray(new Array[FileObject](changedRoots.size)).toList
+        changedRoots.clear
+        xs
+      }
+
+      if (roots.isEmpty || global.isShutdown) return
+
+      val paths = roots flatMap { x => Option(FileUtil.toFile(x)) } map (_.getAbsolutePath)
+      if (!global.askForInvalidateClassPathEntries(paths)) {
         resetLate(global, compCpChanged)
       }
     }
 
+    override def fileFolderCreated(fe: FileEvent) {
+      onChange(fe.getFile, "folder created")
+    }
+
+    override def fileDataCreated(fe: FileEvent) {
+      onChange(fe.getFile, "data created")
+    }
+
     override def fileChanged(fe: FileEvent) {
-      val fo = fe.getFile
-      if (isUnderCompCp(fo) && (global ne null)) {
-        log.finest("file changed: " + fo)
-        resetLate(global, compCpChanged)
-      }
+      onChange(fe.getFile, "file changed")
     }
 
     override def fileRenamed(fe: FileRenameEvent) {
-      val fo = fe.getFile
-      if (isUnderCompCp(fo) && (global ne null)) {
-        log.finest("file renamed: " + fo)
-        resetLate(global, compCpChanged)
-      }
+      onChange(fe.getFile, "file renamed")
     }
 
     override def fileDeleted(fe: FileEvent) {
-      val fo = fe.getFile
-      if (isUnderCompCp(fo) && (global ne null)) {
-        log.finest("file deleted: " + fo)
-        resetLate(global, compCpChanged)
-      }
+      onChange(fe.getFile, "file deleted")
     }
   }
 }
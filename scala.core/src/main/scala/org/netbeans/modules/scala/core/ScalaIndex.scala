@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.core
+
+import java.io.IOException
+import java.util.logging.{ Logger, Level }
+import org.netbeans.api.java.classpath.ClassPath
+import org.netbeans.modules.csl.api.ElementKind
+import org.netbeans.modules.parsing.spi.indexing.support.{ IndexResult, QuerySupport }
+import org.openide.filesystems.FileObject
+import scala.collection.JavaConversions._
+
+/**
+ * Query side of ScalaIndexer
+ *
+ * @author Caoyuan Deng
+ */
+class ScalaIndex private (querySupport: QuerySupport) {
+  import ScalaIndex._
+  import ScalaIndexer._
+
+  def findDfns(name: String, kind: QuerySupport.Kind = QuerySupport.Kind.EXACT): Seq[IndexedItem] = {
+    findItems(FIELD_DFN, name, kind)
+  }
+
+  def findRefs(name: String, kind: QuerySupport.Kind = QuerySupport.Kind.EXACT): Seq[IndexedItem] = {
+    findItems(FIELD_REF, name, kind)
+  }
+
+  /**
+   * @return files that contain identifier token with text `name`
+   */
+  def findFilesWithIdentifier(name: String): Set[FileObject] = {
+    (for {
+      result <- query(FIELD_IDENT, identifierName(name), QuerySupport.Kind.EXACT, FIELD_IDENT)
+      fo = result.getFile if fo ne null
+    } yield fo).toSet
+  }
+
+  /**
+   * @return fully qualified names of top level templates that start with fqnPrefix
+   */
+  def findTemplates(fqnPrefix: String): Set[(String, FileObject)] = {
+    val results = query(FIELD_TEMPLATE, fqnPrefix, QuerySupport.Kind.PREFIX, FIELD_TEMPLATE)
+    (for {
+      result <- results
+      fo = result.getFile if fo ne null
+      fqn <- result.getValues(FIELD_TEMPLATE) if fqn.startsWith(fqnPrefix)
+    } yield (fqn, fo)).toSet
+  }
+
+  private def findItems(field: String, name: String, kind: QuerySupport.Kind): Seq[IndexedItem] = {
+    // values are stored as "name`...", so an exact name is a prefix query on "name`"
+    val (queryName, queryKind) = kind match {
+      case QuerySupport.Kind.EXACT => (name + SEPARATOR, QuerySupport.Kind.PREFIX)
+      case _                       => (name, kind)
+    }
+
+    for {
+      result <- query(field, queryName, queryKind, field)
+      fo = result.getFile if fo ne null
+      value <- result.getValues(field)
+      item <- Item.decode(value) if matches(item.name, name, kind)
+    } yield IndexedItem(fo, item.name, item.kind, item.owner, item.offset, item.endOffset)
+  }
+
+  private def query(field: String, value: String, kind: QuerySupport.Kind, fieldsToLoad: String*): Seq[IndexResult] = {
+    try {
+      querySupport.query(field, value, kind, fieldsToLoad: _*).toSeq
+    } catch {
+      case ex: IOException => log.log(Level.WARNING, ex.getMessage, ex); Nil
+    }
+  }
+
+  private def matches(itemName: String, name: String, kind: QuerySupport.Kind): Boolean = kind match {
+    case QuerySupport.Kind.EXACT                   => itemName == name
+    case QuerySupport.Kind.PREFIX                  => itemName.startsWith(name)
+    case QuerySupport.Kind.CASE_INSENSITIVE_PREFIX => itemName.toLowerCase.startsWith(name.toLowerCase)
+    case _                                         => true
+  }
+}
+
+object ScalaIndex {
+  private val log = Logger.getLogger(classOf[ScalaIndex].getName)
+
+  case class IndexedItem(fo: FileObject, name: String, kind: ElementKind, owner: String, offset: Int, endOffset: Int) {
+    def qualifiedName = if (owner == "") name else owner + "." + name
+  }
+
+  def apply(roots: Iterable[FileObject]): Option[ScalaIndex] = {
+    try {
+      Some(new ScalaIndex(QuerySupport.forRoots(ScalaIndexer.NAME, ScalaIndexer.VERSION, roots.toArray: _*)))
+    } catch {
+      case ex: IOException => log.log(Level.WARNING, ex.getMessage, ex); None
+    }
+  }
+
+  def apply(srcCp: ClassPath): Option[ScalaIndex] = apply(srcCp.getRoots)
+}
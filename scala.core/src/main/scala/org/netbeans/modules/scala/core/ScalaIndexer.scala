@@ -0,0 +1,215 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.core
+
+import java.io.IOException
+import java.util.logging.{ Logger, Level }
+import org.netbeans.api.lexer.TokenHierarchy
+import org.netbeans.modules.csl.api.ElementKind
+import org.netbeans.modules.parsing.api.Snapshot
+import org.netbeans.modules.parsing.spi.Parser
+import org.netbeans.modules.parsing.spi.indexing.{ Context, EmbeddingIndexer, EmbeddingIndexerFactory, Indexable }
+import org.netbeans.modules.parsing.spi.indexing.support.{ IndexDocument, IndexingSupport }
+import org.netbeans.modules.scala.core.lexer.{ ScalaLexUtil, ScalaTokenId }
+import scala.collection.JavaConversions._
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Stores per-file definitions and references into the NetBeans index (under the
+ * cache dir), so project-wide queries could be answered without re-typechecking
+ * every source via ScalaGlobal#askForSemantic.
+ *
+ * Each item is stored as one compact value: "name`kind`ownerFqn`offset`endOffset",
+ * a back quote never appears in a decoded name. The items are got from the parse tree
+ * only, @see ScalaGlobal#askForIndexItems, so the initial scan and reindexing never
+ * typecheck, thus the owner of a reference is its qualifier as written.
+ *
+ * The distinct identifier texts of the file are also stored (from lexer tokens only),
+ * which is an inverted index from identifier to files per source root, used to
+ * narrow the candidate files of refactoring before typechecking them.
+ *
+ * @see ScalaIndex for the query side
+ * @author Caoyuan Deng
+ */
+class ScalaIndexer extends EmbeddingIndexer {
+  import ScalaIndexer._
+
+  override protected def index(indexable: Indexable, parserResult: Parser.Result, context: Context) {
+    val pr = parserResult match {
+      case x: ScalaParserResult => x
+      case _                    => return
+    }
+
+    val support = try {
+      IndexingSupport.getInstance(context)
+    } catch {
+      case ex: IOException => log.log(Level.WARNING, ex.getMessage, ex); return
+    }
+
+    // remove old documents of this indexable first
+    support.removeDocuments(indexable)
+
+    val start = System.currentTimeMillis
+    val document = support.createDocument(indexable)
+    indexIdentifiers(document, pr.getSnapshot.getTokenHierarchy)
+
+    val items = pr.global.askForIndexItems(pr.srcFile)
+    items.dfns foreach { x => document.addPair(FIELD_DFN, x.encode, true, true) }
+    items.refs foreach { x => document.addPair(FIELD_REF, x.encode, true, true) }
+    items.templates foreach { x => document.addPair(FIELD_TEMPLATE, x, true, true) }
+
+    support.addDocument(document)
+    log.fine("Indexed " + pr.getSnapshot.getSource.getFileObject.getNameExt + " in " + (System.currentTimeMillis - start) + "ms")
+  }
+
+  private def indexIdentifiers(document: IndexDocument, th: TokenHierarchy[_]) {
+    val ts = ScalaLexUtil.getTokenSequence(null, th, 0).getOrElse(return)
+    val names = new java.util.HashSet[String]
+    ts.move(0)
+    while (ts.moveNext) {
+      ts.token.id match {
+        case ScalaTokenId.Identifier => names.add(identifierName(ts.token.text))
+        case _                       =>
+      }
+    }
+
+    val itr = names.iterator
+    while (itr.hasNext) {
+      document.addPair(FIELD_IDENT, itr.next, true, false)
+    }
+  }
+}
+
+object ScalaIndexer {
+  private val log = Logger.getLogger(classOf[ScalaIndexer].getName)
+
+  val NAME = "scala" // NOI18N
+  val VERSION = 4
+
+  /** definitions, value as "name`kind`ownerFqn`offset`endOffset" */
+  val FIELD_DFN = "dfn" // NOI18N
+  /** references, value as "name`kind`ownerFqn`offset`endOffset" */
+  val FIELD_REF = "ref" // NOI18N
+  /** fully qualified names of top level classes, traits and objects */
+  val FIELD_TEMPLATE = "tpl" // NOI18N
+  /** distinct identifier texts that appear in file, searchable only */
+  val FIELD_IDENT = "id" // NOI18N
+
+  val SEPARATOR = '`'
+
+  /**
+   * A definition or reference, offsets are of its name
+   */
+  final case class Item(name: String, kind: ElementKind, owner: String, offset: Int, endOffset: Int) {
+    def qualifiedName = if (owner == "") name else owner + "." + name
+
+    def encode: String = {
+      val sb = new StringBuilder(name.length + owner.length + 24)
+      sb.append(name).append(SEPARATOR)
+      sb.append(kind.name).append(SEPARATOR)
+      sb.append(owner).append(SEPARATOR)
+      sb.append(offset).append(SEPARATOR)
+      sb.append(endOffset)
+      sb.toString
+    }
+  }
+
+  object Item {
+    def decode(value: String): Option[Item] = {
+      value.split(SEPARATOR) match {
+        case Array(name, kind, owner, offset, endOffset) =>
+          try {
+            Some(Item(name, ElementKind.valueOf(kind), owner, offset.toInt, endOffset.toInt))
+          } catch {
+            case _: IllegalArgumentException => None
+          }
+        case _ => None
+      }
+    }
+  }
+
+  /** what is indexed of one file */
+  final class Items {
+    val dfns = new ArrayBuffer[Item]
+    val refs = new ArrayBuffer[Item]
+    val templates = new ArrayBuffer[String]
+  }
+
+  /**
+   * Strip the back quotes, so `type` and type are same identifier
+   */
+  def identifierName(text: CharSequence): String = {
+    val len = text.length
+    if (len > 2 && text.charAt(0) == '`' && text.charAt(len - 1) == '`') {
+      text.subSequence(1, len - 1).toString
+    } else text.toString
+  }
+}
+
+class ScalaIndexerFactory extends EmbeddingIndexerFactory {
+  private val log = Logger.getLogger(this.getClass.getName)
+
+  override def createIndexer(indexable: Indexable, snapshot: Snapshot): EmbeddingIndexer = {
+    if (snapshot.getMimeType == ScalaMimeResolver.MIME_TYPE) new ScalaIndexer else null
+  }
+
+  override def filesDeleted(deleted: java.lang.Iterable[_ <: Indexable], context: Context) {
+    try {
+      val support = IndexingSupport.getInstance(context)
+      deleted foreach support.removeDocuments
+    } catch {
+      case ex: IOException => log.log(Level.WARNING, ex.getMessage, ex)
+    }
+  }
+
+  override def filesDirty(dirty: java.lang.Iterable[_ <: Indexable], context: Context) {
+    try {
+      val support = IndexingSupport.getInstance(context)
+      dirty foreach support.markDirtyDocuments
+    } catch {
+      case ex: IOException => log.log(Level.WARNING, ex.getMessage, ex)
+    }
+  }
+
+  override def getIndexerName = ScalaIndexer.NAME
+
+  override def getIndexVersion = ScalaIndexer.VERSION
+}
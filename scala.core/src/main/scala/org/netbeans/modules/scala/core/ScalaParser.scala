@@ -47,6 +47,7 @@ import org.netbeans.modules.parsing.api.{ Snapshot, Task }
 import org.netbeans.modules.parsing.impl.indexing.TimeStamps
 import org.netbeans.modules.parsing.spi.{ ParseException, Parser, ParserFactory, SourceModificationEvent }
 import org.openide.filesystems.{ FileObject, FileUtil }
+import org.openide.util.ChangeSupport
 
 /**
  *
@@ -57,6 +58,10 @@ class ScalaParser extends Parser {
 
   private var _result: ScalaParserResult = null
 
+  private val changeSupport = new ChangeSupport(this)
+  /** the result whose tasks are asked to run again, the next parse keeps it if the text is unchanged */
+  @volatile private var _rerun: ScalaParserResult = null
+
   /**
    * Called when some task needs some result of parsing. Task parameter contains
    * UserTask, or SchedulerTask instance, that requests Parser.Result.
@@ -106,7 +111,28 @@ class ScalaParser extends Parser {
     // refect to this change to make sure if the reference to that file is still correct, 
     // i.e. we need re-parsing it anyway. 
     // But we can make the actual parsing procedure lazily in parser result. @see ScalaParserResult#toSemanticed
-    _result = ScalaParserResult(snapshot)
+    // If the previous result has been typechecked, an edit inside one method body will only retypecheck that method
+    _result = _rerun match {
+      case x if (x ne null) && (x eq _result) && x.getSnapshot.getText.toString == snapshot.getText.toString =>
+        log.info("Keep typechecked " + x + " to rerun tasks")
+        x
+      case _ =>
+        val x = ScalaParserResult(snapshot, Option(_result) flatMap (_.lastSemanticed))
+        x.onSemanticed = () => rerunTasks(x)
+        x
+    }
+    _rerun = null
+  }
+
+  /**
+   * Fire a change so the parsing api runs the tasks again, the following parse keeps pr then,
+   * thus the tasks see its semantic root instead of a new result that is not typechecked yet.
+   */
+  private def rerunTasks(pr: ScalaParserResult) {
+    if (pr eq _result) {
+      _rerun = pr
+      changeSupport.fireChange()
+    }
   }
 
   /**
@@ -125,11 +151,11 @@ class ScalaParser extends Parser {
   }
 
   override def addChangeListener(changeListener: ChangeListener) {
-    // no-op, we don't support state changes
+    changeSupport.addChangeListener(changeListener)
   }
 
   override def removeChangeListener(changeListener: ChangeListener) {
-    // no-op, we don't support state changes
+    changeSupport.removeChangeListener(changeListener)
   }
 
   private final class Factory extends ParserFactory {
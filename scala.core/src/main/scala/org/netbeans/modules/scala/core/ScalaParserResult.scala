@@ -46,6 +46,7 @@ import org.netbeans.modules.csl.spi.DefaultError
 import org.netbeans.modules.csl.spi.ParserResult
 import org.netbeans.modules.parsing.api.Snapshot
 import org.netbeans.modules.scala.core.ast.ScalaRootScope
+import scala.collection.JavaConversions._
 import scala.collection.mutable.WeakHashMap
 import scala.tools.nsc.reporters.Reporter
 
@@ -53,11 +54,10 @@ import scala.tools.nsc.reporters.Reporter
  *
  * @author Caoyuan Deng
  */
-class ScalaParserResult private (snapshot: Snapshot) extends ParserResult(snapshot) {
+class ScalaParserResult private (snapshot: Snapshot, val global: ScalaGlobal) extends ParserResult(snapshot) {
   private val fo = snapshot.getSource.getFileObject
-  val global = ScalaGlobal.getGlobal(fo)
   val srcFile = {
-    val x = ScalaSourceFile.sourceFileOf(fo)
+    val x = if (global.isDetached) ScalaSourceFile.detachedSourceFileOf(fo) else ScalaSourceFile.sourceFileOf(fo)
     x.snapshot = snapshot
     x
   }
@@ -65,6 +65,13 @@ class ScalaParserResult private (snapshot: Snapshot) extends ParserResult(snapsh
   @volatile private var _root: Option[ScalaRootScope] = None
   @volatile private var _errors: java.util.List[Error] = java.util.Collections.emptyList[Error]
 
+  /** the result this one replaced, kept only until toSemanticed to find an EditRegion */
+  @volatile private var _prev: Option[ScalaParserResult] = None
+
+  /** set by the parser, asks to run the tasks on this result again */
+  @volatile private[core] var onSemanticed: () => Unit = null
+  @volatile private var _rerunWanted = false
+
   /**
    * @see http://forums.netbeans.org/topic43738.html
    * The Result.invalidate method does not (AFAIK) mean that the outcome of
@@ -114,9 +121,93 @@ class ScalaParserResult private (snapshot: Snapshot) extends ParserResult(snapsh
     _root getOrElse ScalaRootScope.EMPTY
   }
 
+  /**
+   * A definitions only scope from the parse tree without typechecking, which is enough for
+   * structure and syntax navigation, and is there even when typechecking is still running
+   * or broken. It's the semantic root if that has been got already.
+   */
+  lazy val syntaxRootScope: ScalaRootScope = _root match {
+    case Some(x) if x ne ScalaRootScope.EMPTY => x
+    case _                                    => global.askForStructure(srcFile)
+  }
+
+  /**
+   * @return the root of the typechecked tree if it has been got, without waiting for it
+   */
+  def semanticRootScope: Option[ScalaRootScope] = _root filter (_ ne ScalaRootScope.EMPTY)
+
+  /**
+   * A task that took syntaxRootScope since the semantic root was not there, such as the navigator,
+   * calls this to be run again on this result once it is typechecked.
+   */
+  def rerunTasksWhenSemanticed() {
+    _rerunWanted = true
+    if (semanticRootScope.isDefined) fireSemanticed()
+  }
+
+  private def fireSemanticed(): Unit = synchronized {
+    if (_rerunWanted) {
+      _rerunWanted = false
+      onSemanticed match {
+        case null =>
+        case f    => f()
+      }
+    }
+  }
+
   private def toSemanticed() {
-    _root = global.askForSemantic(srcFile)
-    _errors = collectErrors(global.reporter)
+    val prev = _prev
+    _prev = None
+    val region = prev flatMap editRegionSince
+
+    _root = global.askForSemantic(srcFile, region)
+    _errors = global.metrics.time(GlobalMetrics.CollectErrors) {
+      val errs = collectErrors(global.reporter)
+      (_root, region, prev) match {
+        case (Some(root), Some(x), Some(prevx)) if root.regionRuns > 0 => withErrorsOutside(x, prevx._errors, errs)
+        case _ => errs
+      }
+    }
+    if (_rerunWanted && semanticRootScope.isDefined) fireSemanticed()
+  }
+
+  /**
+   * @return this or the result this one replaced, whichever has been typechecked
+   */
+  private[core] def lastSemanticed: Option[ScalaParserResult] = {
+    if (_root.isDefined) Some(this) else _prev
+  }
+
+  private def editRegionSince(prev: ScalaParserResult): Option[EditRegion] = {
+    prev._root match {
+      case Some(prevRoot) if (prevRoot ne ScalaRootScope.EMPTY) && (prev.global eq global) =>
+        EditRegion.find(prevRoot, prev.getSnapshot, snapshot)
+      case _ => None
+    }
+  }
+
+  /**
+   * The unit was typechecked only until the member of region, and a partial run does not
+   * report all errors before this member either, so only the errors inside this member are
+   * taken from errs. The errors outside it are those of the previous result, which do not
+   * change since the member has an explicit result type, the ones after it are moved by
+   * region's delta.
+   */
+  private def withErrorsOutside(region: EditRegion, prevErrs: java.util.List[Error], errs: java.util.List[Error]): java.util.List[Error] = {
+    val merged = new java.util.ArrayList[Error]
+    val prevMemberEnd = region.memberEndOffset - region.delta
+    for (err <- prevErrs if err.getStartPosition < region.memberOffset) {
+      merged.add(err)
+    }
+    for (err <- errs if err.getStartPosition >= region.memberOffset && err.getStartPosition < region.memberEndOffset) {
+      merged.add(err)
+    }
+    for (err <- prevErrs if err.getStartPosition >= prevMemberEnd) {
+      val offset = err.getStartPosition + region.delta
+      val end = if (err.getEndPosition == -1) -1 else err.getEndPosition + region.delta
+      merged.add(DefaultError.createDefaultError(err.getKey, err.getDisplayName, err.getDescription, fo, offset, end, err.isLineError, err.getSeverity))
+    }
+    merged
   }
 
   /**
@@ -182,8 +273,26 @@ object ScalaParserResult {
   private val debug = false
   private val unreleasedResults = new WeakHashMap[ScalaParserResult, String]
 
-  def apply(snapshot: Snapshot) = {
-    val pr = new ScalaParserResult(snapshot)
+  def apply(snapshot: Snapshot): ScalaParserResult = {
+    apply(snapshot, ScalaGlobal.getGlobal(snapshot.getSource.getFileObject))
+  }
+
+  /**
+   * Create a parser result that replaces prev, if prev has been typechecked and the
+   * change is inside one method body, only this method will be typechecked again.
+   */
+  def apply(snapshot: Snapshot, prev: Option[ScalaParserResult]): ScalaParserResult = {
+    val pr = apply(snapshot)
+    pr._prev = prev
+    pr
+  }
+
+  /**
+   * Create a parser result that will be typechecked by the specified global
+   * instead of the one that is cached for snapshot's project.
+   */
+  def apply(snapshot: Snapshot, global: ScalaGlobal): ScalaParserResult = {
+    val pr = new ScalaParserResult(snapshot, global)
     if (debug) {
       unreleasedResults.put(pr, snapshot.getSource.getFileObject.getPath)
       log.info("==== unreleased parser results: ")
@@ -41,6 +41,12 @@ object ScalaSourceFile {
     }
   }
 
+  /**
+   * A new instance that is not cached, so its snapshot could be set by a detached
+   * global's worker without racing with the editor's parsing.
+   */
+  def detachedSourceFileOf(fileObject: FileObject): ScalaSourceFile = new ScalaSourceFile(fileObject)
+
 }
 
 /**
@@ -0,0 +1,224 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.core
+
+import java.io.{ BufferedReader, BufferedWriter, File, FileInputStream, FileOutputStream, InputStreamReader, IOException, OutputStreamWriter }
+import java.security.MessageDigest
+import java.util.logging.{ Logger, Level }
+import org.openide.modules.Places
+import org.openide.util.RequestProcessor
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Warm start of globals across IDE sessions.
+ *
+ * Scalac's symbols could not be serialized, so what we keep is the skeleton of the
+ * loaded symbols: the full names of top level classes/objects whose infos have been
+ * completed (i.e. unpickled or parsed from class file) in previous session, under
+ * cache dir, per classpath fingerprint. When a global on the same classpath is created
+ * again, these symbols are re-loaded on the compiler thread in background, in small
+ * chunks so that the interactive requests can still go in between, thus the first
+ * completion or highlighting needs not to pay for them.
+ *
+ * @author Caoyuan Deng
+ */
+object WarmStart {
+  private val log = Logger.getLogger(this.getClass.getName)
+
+  private val rp = new RequestProcessor(this.getClass.getName, 1)
+
+  private val CacheDir = "scala/warmstart" // NOI18N
+  private val MaxSymbols = 10000
+  private val ChunkSize = 200
+  /** do not record before the global is used for a while */
+  private val RecordAfter = 30 * 1000L
+  private val RecordInterval = 10 * 60 * 1000L
+
+  private val ClassTag = 'C'
+  private val ModuleTag = 'M'
+
+  /**
+   * Schedule to re-load the symbols that were recorded for global's classpath
+   */
+  def restore(global: ScalaGlobal) {
+    rp.post(new Runnable {
+      def run {
+        val file = snapshotFile(global)
+        if (!file.exists) return
+
+        val start = System.currentTimeMillis
+        val names = read(file)
+        names.grouped(ChunkSize) foreach { chunk =>
+          if (global.isShutdown) return
+          global.askForResponse { () =>
+            chunk foreach { x => load(global, x) }
+          } get match {
+            case Left(_)   =>
+            case Right(ex) => log.log(Level.FINE, ex.getMessage, ex)
+          }
+        }
+        log.info("Warm started " + names.size + " symbols in " + (System.currentTimeMillis - start) + "ms")
+      }
+    })
+  }
+
+  /**
+   * Record the loaded symbols of global if it has been used long enough since
+   * created or since last recording.
+   */
+  def recordIfNeeded(global: ScalaGlobal) {
+    val now = System.currentTimeMillis
+    val since = global.lastWarmStartRecorded max (global.createdTime + RecordAfter - RecordInterval)
+    if (now - since < RecordInterval) return
+
+    global.lastWarmStartRecorded = now
+    rp.post(new Runnable {
+      def run {
+        if (global.isShutdown) return
+
+        global.askForResponse { () =>
+          collectLoaded(global)
+        } get match {
+          case Left(names) => write(snapshotFile(global), names)
+          case Right(ex)   => log.log(Level.FINE, ex.getMessage, ex)
+        }
+      }
+    })
+  }
+
+  private def load(global: ScalaGlobal, tagged: String) {
+    try {
+      val name = tagged.substring(1)
+      val sym = tagged.charAt(0) match {
+        case ClassTag  => global.rootMirror.getClassIfDefined(name)
+        case ModuleTag => global.rootMirror.getModuleIfDefined(name)
+        case _         => global.NoSymbol
+      }
+      if (sym != global.NoSymbol) sym.initialize
+    } catch {
+      case _: Throwable => // the classpath may have been changed, just ignore
+    }
+  }
+
+  /**
+   * Should be called on compiler thread
+   */
+  private def collectLoaded(global: ScalaGlobal): List[String] = {
+    import global._
+
+    val names = new ArrayBuffer[String]
+
+    def isLoaded(sym: Symbol) = (sym ne null) && sym != NoSymbol && sym.rawInfo.isComplete
+
+    def collect(pkgClass: Symbol) {
+      for (sym <- pkgClass.info.decls if names.size < MaxSymbols) {
+        if (sym.hasPackageFlag) {
+          if (sym.isModule && isLoaded(sym.moduleClass)) {
+            collect(sym.moduleClass)
+          }
+        } else if (isLoaded(sym)) {
+          if (sym.isModule) {
+            names += ModuleTag + sym.fullName
+          } else if (sym.isClass) {
+            names += ClassTag + sym.fullName
+          }
+        }
+      }
+    }
+
+    collect(rootMirror.RootClass)
+    names.toList
+  }
+
+  private def snapshotFile(global: ScalaGlobal): File = {
+    val dir = Places.getCacheSubdirectory(CacheDir)
+    new File(dir, fingerprint(global) + ".txt")
+  }
+
+  /**
+   * Fingerprint of boot and compile classpath, including the mtime of each entry
+   */
+  private def fingerprint(global: ScalaGlobal): String = {
+    val cp = global.settings.bootclasspath.value + File.pathSeparator + global.settings.classpath.value
+    val sb = new StringBuilder(cp)
+    cp.split(File.pathSeparator) foreach { path =>
+      val file = new File(path)
+      if (file.exists) sb.append(';').append(file.lastModified).append(';').append(file.length)
+    }
+
+    val digest = MessageDigest.getInstance("MD5").digest(sb.toString.getBytes("UTF-8"))
+    (digest map { x => "%02x".format(x & 0xff) }).mkString
+  }
+
+  private def read(file: File): List[String] = {
+    val names = new ArrayBuffer[String]
+    var reader: BufferedReader = null
+    try {
+      reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"))
+      var line = reader.readLine
+      while (line ne null) {
+        if (line.length > 1) names += line
+        line = reader.readLine
+      }
+    } catch {
+      case ex: IOException => log.log(Level.FINE, ex.getMessage, ex)
+    } finally {
+      if (reader ne null) reader.close
+    }
+    names.toList
+  }
+
+  private def write(file: File, names: List[String]) {
+    var writer: BufferedWriter = null
+    try {
+      writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))
+      names foreach { x =>
+        writer.write(x)
+        writer.newLine
+      }
+      log.info("Recorded " + names.size + " loaded symbols to " + file)
+    } catch {
+      case ex: IOException => log.log(Level.FINE, ex.getMessage, ex)
+    } finally {
+      if (writer ne null) writer.close
+    }
+  }
+}
@@ -46,6 +46,8 @@ import org.netbeans.modules.csl.api.{ ElementKind }
 import org.openide.filesystems.FileUtil
 import org.netbeans.api.language.util.ast.AstItem
 import org.netbeans.api.language.util.ast.AstScope
+import org.netbeans.modules.scala.core.EditRegion
+import org.netbeans.modules.scala.core.ScalaIndexer
 import org.netbeans.modules.scala.core.ScalaGlobal
 import org.netbeans.modules.scala.core.ScalaSourceFile
 import org.netbeans.modules.scala.core.lexer.ScalaLexUtil
@@ -77,11 +79,153 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
     }
   }
 
+  /**
+   * Visit an untyped parse tree for definitions of packages, templates and their members only,
+   * these dfns have NoSymbol but their kind is set explicitly.
+   *
+   * call this method only via askForResponse too
+   */
+  protected def astVisitSyntax(srcFile: ScalaSourceFile, parseTree: Tree): ScalaRootScope = {
+    if (srcFile.content.length > 0) {
+      new treeTraverser(srcFile, parseTree, syntaxOnly = true).apply()
+    } else {
+      ScalaRootScope.EMPTY
+    }
+  }
+
+  /**
+   * Collect from an untyped parse tree the definitions of templates and their members, all
+   * references, and the fully qualified names of top level templates, for ScalaIndexer.
+   *
+   * There are no symbols, so the owner of a definition is the path of its enclosing packages
+   * and templates, and the owner of a reference is its qualifier if that is a plain path, such
+   * as "scala.collection" of scala.collection.Seq, otherwise "". A reference is a CLASS if it
+   * names a type, otherwise OTHER.
+   *
+   * call this method only via askForResponse too
+   */
+  protected def indexItems(parseTree: Tree): ScalaIndexer.Items = {
+    val items = new ScalaIndexer.Items
+
+    def qualify(owner: String, name: String) = if (owner == "") name else owner + "." + name
+
+    def pathOf(tree: Tree): Option[String] = tree match {
+      case Ident(name)        => Some(name.decode)
+      case Select(qual, name) => pathOf(qual) map (qualify(_, name.decode))
+      case _                  => None
+    }
+
+    def itemOf(tree: Tree, name: Name, kind: ElementKind, owner: String): Option[ScalaIndexer.Item] = {
+      val pos = tree.pos
+      val decoded = name.decode
+      if (!pos.isDefined || pos.isTransparent || decoded.length == 0 || decoded.contains('$') ||
+        name == nme.CONSTRUCTOR || name == nme.MIXIN_CONSTRUCTOR || name == nme.WILDCARD || name == nme.ERROR) {
+        None
+      } else {
+        // * a back quoted name starts after the quote
+        val content = pos.source.content
+        val offset = if (pos.point < content.length && content(pos.point) == '`') pos.point + 1 else pos.point
+        // * trees added by parser, such as the AnyRef parent, are not written there
+        if (isWrittenAt(content, offset, decoded)) Some(ScalaIndexer.Item(decoded, kind, owner, offset, offset + decoded.length))
+        else None
+      }
+    }
+
+    def isWrittenAt(content: Array[Char], offset: Int, name: String): Boolean = {
+      if (offset < 0 || offset + name.length > content.length) return false
+      var i = 0
+      while (i < name.length) {
+        if (content(offset + i) != name.charAt(i)) return false
+        i += 1
+      }
+      true
+    }
+
+    def dfn(tree: Tree, name: Name, kind: ElementKind, owner: String) {
+      itemOf(tree, name, kind, owner) foreach (items.dfns += _)
+    }
+
+    def ref(tree: Tree, name: Name, owner: String) {
+      itemOf(tree, name, if (name.isTypeName) ElementKind.CLASS else ElementKind.OTHER, owner) foreach (items.refs += _)
+    }
+
+    /**
+     * @param inTemplate owner is a template instead of a package
+     * @param inMember under a method or value body, definitions there are local
+     */
+    def traverse(tree: Tree, owner: String, inTemplate: Boolean, inMember: Boolean): Unit = tree match {
+      case PackageDef(pid, stats) =>
+        val fqn = if (pid.name == nme.EMPTY_PACKAGE_NAME) owner else qualify(owner, pathOf(pid) getOrElse "")
+        stats foreach (traverse(_, fqn, false, false))
+
+      case ClassDef(_, name, _, _) =>
+        traverseTemplate(tree, name, ElementKind.CLASS, owner, inTemplate, inMember)
+
+      case ModuleDef(_, name, _) =>
+        traverseTemplate(tree, name, ElementKind.MODULE, owner, inTemplate, inMember)
+
+      case Template(parents, self, body) =>
+        parents foreach (traverse(_, owner, inTemplate, inMember))
+        traverse(self.tpt, owner, inTemplate, inMember)
+        body foreach (traverse(_, owner, inTemplate, inMember))
+
+      case DefDef(_, name, _, _, _, _) =>
+        if (!inMember) dfn(tree, name, ElementKind.METHOD, owner)
+        tree.children foreach (traverse(_, owner, inTemplate, true))
+
+      case ValDef(mods, name, _, _) =>
+        if (!inMember && !mods.isParameter) dfn(tree, name, ElementKind.FIELD, owner)
+        tree.children foreach (traverse(_, owner, inTemplate, true))
+
+      case TypeDef(mods, name, _, _) =>
+        if (!inMember && !mods.isParameter) dfn(tree, name, ElementKind.CLASS, owner)
+        tree.children foreach (traverse(_, owner, inTemplate, true))
+
+      case Ident(name) =>
+        ref(tree, name, "")
+
+      case Select(qual, name) =>
+        ref(tree, name, pathOf(qual) getOrElse "")
+        traverse(qual, owner, inTemplate, inMember)
+
+      case _ =>
+        tree.children foreach (traverse(_, owner, inTemplate, inMember))
+    }
+
+    def traverseTemplate(tree: Tree, name: Name, kind: ElementKind, owner: String, inTemplate: Boolean, inMember: Boolean) {
+      if (!inMember) {
+        dfn(tree, name, kind, owner)
+        if (!inTemplate) items.templates += qualify(owner, name.decode)
+      }
+      tree.children foreach (traverse(_, qualify(owner, name.decode), true, inMember))
+    }
+
+    traverse(parseTree, "", false, false)
+    items
+  }
+
+  /**
+   * Visit only memberTree, which is the typed member enclosing region. The scopes and
+   * items outside this member are copied from region's previous root, moved to the
+   * tokens of srcFile, and their symbols are resolved again in current run.
+   *
+   * call this method only via askForResponse too
+   * @return None if some of the previous items could not be moved or resolved, a full visit is needed then
+   */
+  protected def astVisitRegion(srcFile: ScalaSourceFile, memberTree: Tree, region: EditRegion): Option[ScalaRootScope] = {
+    val traverser = new treeTraverser(srcFile, memberTree)
+    traverser.copyOutside(region) map { parent =>
+      val rootScope = traverser.applyIn(parent, memberTree.symbol.owner)
+      rootScope.regionRuns = region.prevRoot.regionRuns + 1
+      rootScope
+    }
+  }
+
   /**
    * Since ScalaAstVisitor is to be mixed in to ScalaGlobal, we'd like to define
    * a new class to avoid exposing too much fields and methods.
    */
-  private class treeTraverser(srcFile: ScalaSourceFile, rootTree: Tree) {
+  private class treeTraverser(srcFile: ScalaSourceFile, rootTree: Tree, syntaxOnly: Boolean = false) {
     private val debug = false
 
     /** doc may be null if under batched parsing, for example, indexing */
@@ -105,8 +249,15 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
     def apply(): ScalaRootScope = {
       //println(qualToRecoveredType)
 
-      scopes push rootScope
-      owners push rootMirror.RootClass
+      applyIn(rootScope, rootMirror.RootClass)
+    }
+
+    /**
+     * Traverse rootTree as if it's enclosed by scope and owned by owner
+     */
+    def applyIn(scope: AstScope, owner: Symbol): ScalaRootScope = {
+      scopes push scope
+      owners push owner
 
       traverse(rootTree)
 
@@ -114,13 +265,132 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
       visited.clear
       treeToKnownType.clear
 
+      // all items are put now, capture the token offsets for lookups
+      if (!isCancelled(srcFile)) rootScope.indexTokens(th)
+
       if (debug) rootScope.debugPrintTokens(th)
 
       rootScope
     }
 
+    /**
+     * Copy the scopes and items of region.prevRoot, except those of region.member, to rootScope.
+     * @return the copy of member's parent scope, or None if a token is not there any more, or
+     *         a symbol of this source could not be resolved in current run
+     */
+    def copyOutside(region: EditRegion): Option[AstScope] = {
+      val ts = ScalaLexUtil.getTokenSequence(doc, th, 0).getOrElse(return None)
+      val movedTokens = new HashMap[Token[TokenId], Token[TokenId]]
+      val resolvedSyms = new HashMap[Symbol, Symbol]
+      val copies = new HashMap[AstScope, AstScope]
+      var memberParent: Option[AstScope] = None
+
+      def isOfThisSource(sym: Symbol) = {
+        sym.pos.isDefined && (sym.pos.source.file ne null) && sym.pos.source.file.path == srcFile.file.path
+      }
+
+      /**
+       * The members of this source are entered again by current run, find them by the owner
+       * (resolved first), name and moved position. Symbols of other sources and locals keep
+       * as they are, the locals are only referred inside the member that owns them, which is
+       * not typechecked again.
+       */
+      def resolve(sym: Symbol): Option[Symbol] = {
+        if ((sym eq null) || sym == NoSymbol || sym.hasPackageFlag || !isOfThisSource(sym)) return Some(sym)
+        if (!(sym.owner.isClass || sym.isModuleClass)) return Some(sym)
+
+        resolvedSyms.get(sym) match {
+          case None =>
+            val point = region.newOffset(sym.pos.point, 0)
+            def isMoved(x: Symbol) = (x eq sym) || (x.pos.isDefined && x.pos.point == point)
+
+            val resolved = if (point < 0) None else if (sym.isModuleClass) {
+              resolve(sym.sourceModule) map (_.moduleClass) filter (_ != NoSymbol)
+            } else {
+              resolve(sym.owner) flatMap { owner =>
+                if (sym.isTypeParameterOrSkolem) {
+                  owner.typeParams find { x => x.name == sym.name && isMoved(x) }
+                } else {
+                  owner.info.decl(sym.name).alternatives find isMoved
+                }
+              }
+            }
+            resolved foreach { x => resolvedSyms(sym) = x }
+            resolved
+          case x => x
+        }
+      }
+
+      def move(token: Token[TokenId]): Option[Token[TokenId]] = {
+        movedTokens.get(token) match {
+          case None =>
+            val offset = region.newOffset(token.offset(region.prevTh), token.length)
+            if (offset < 0) return None
+
+            ts.move(offset)
+            if (ts.moveNext && ts.offset == offset && ts.token.id == token.id && ts.token.text.toString == token.text.toString) {
+              val movedToken = ts.offsetToken
+              movedTokens(token) = movedToken
+              Some(movedToken)
+            } else None
+          case x => x
+        }
+      }
+
+      def moveOrNull(token: Option[Token[TokenId]]): Option[Token[TokenId]] = token match {
+        case Some(x) => move(x)
+        case None    => Some(null)
+      }
+
+      def copyScopes(from: AstScope, to: AstScope): Boolean = {
+        copies(from) = to
+        from.subScopes forall { sub =>
+          if (sub eq region.member) {
+            memberParent = Some(to)
+            true
+          } else {
+            (moveOrNull(sub.boundsToken), moveOrNull(sub.boundsEndToken)) match {
+              case (Some(boundsToken), Some(boundsEndToken)) =>
+                val copy = ScalaScope(Array(boundsToken, boundsEndToken))
+                to.addScope(copy)
+                copyScopes(sub, copy)
+              case _ => false
+            }
+          }
+        }
+      }
+
+      if (!copyScopes(region.prevRoot, rootScope)) return None
+
+      val importingItems = region.prevRoot.importingItems
+      for ((from, to) <- copies) {
+        for (dfn <- from.dfns if dfn.bindingScope ne region.member) {
+          val token = move(dfn.idToken).getOrElse(return None)
+          val bindingScope = copies.getOrElse(dfn.bindingScope, return None)
+          val sym = resolve(dfn.symbol.asInstanceOf[Symbol]).getOrElse(return None)
+          val copy = ScalaDfn(sym, token, dfn.kind, bindingScope, dfn.fo)
+          copy.resultType = dfn.resultType.asInstanceOf[Type]
+          to.addDfn(copy)
+        }
+
+        for (ref <- from.refs) {
+          val token = move(ref.idToken).getOrElse(return None)
+          val sym = resolve(ref.symbol.asInstanceOf[Symbol]).getOrElse(return None)
+          val copy = ScalaRef(sym, token, ref.kind, ref.fo)
+          copy.resultType = ref.resultType.asInstanceOf[Type]
+          if (to.addRef(copy) && importingItems.contains(ref)) rootScope putImportingItem copy
+        }
+      }
+
+      memberParent
+    }
+
     private def traverse(tree: Tree) {
       if (isCancelled(srcFile)) return
+      if (syntaxOnly) tree match {
+        case _: PackageDef | _: ClassDef | _: ModuleDef | _: Template | _: DefDef | _: ValDef =>
+        case _ => return // * only definitions of templates and their members
+      }
       if (!visited.add(tree)) return // has visited
 
       tree match {
@@ -131,7 +401,7 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
           scopes.top.addScope(scope)
 
           val sym = tree.symbol
-          withIdToken(getIdToken(tree)) { token =>
+          withIdToken(dfnIdToken(tree, pid.name)) { token =>
             val dfn = ScalaDfn(sym, token, ElementKind.PACKAGE, scope, fo)
             if (scopes.top.addDfn(dfn)) logInfo("\tAdded: ", dfn)
           }
@@ -148,7 +418,7 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
           (if (mods.isTrait) "trait " else "class ")
 
           val sym = tree.symbol
-          withIdToken(getIdToken(tree)) { token =>
+          withIdToken(dfnIdToken(tree, name)) { token =>
             val dfn = ScalaDfn(sym, token, ElementKind.CLASS, scope, fo)
             if (scopes.top.addDfn(dfn)) logInfo("\tAdded: ", dfn)
           }
@@ -165,7 +435,7 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
           scopes.top.addScope(scope)
 
           val sym = tree.symbol
-          withIdToken(getIdToken(tree)) { token =>
+          withIdToken(dfnIdToken(tree, name)) { token =>
             val dfn = ScalaDfn(sym, token, ElementKind.MODULE, scope, fo)
             if (scopes.top.addDfn(dfn)) logInfo("\tAdded: ", dfn)
           }
@@ -184,7 +454,8 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
           // * special case for: val (a, b, c) = (1, 2, 3)
           if (!isTupleClass(tpt.symbol)) {
             withIdToken(getIdToken(tree, name.decode)) { token =>
-              val dfn = ScalaDfn(sym, token, ElementKind.OTHER, scope, fo)
+              // * a val's kind is got from its symbol, which is not there under syntaxOnly
+              val dfn = ScalaDfn(sym, token, if (syntaxOnly) ElementKind.FIELD else ElementKind.OTHER, scope, fo)
               if (scopes.top.addDfn(dfn)) logInfo("\tAdded: ", dfn)
             }
           }
@@ -203,12 +474,12 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
           val kind = if (tree.symbol.isConstructor) ElementKind.CONSTRUCTOR else ElementKind.METHOD
 
           val sym = tree.symbol
-          withIdToken(getIdToken(tree)) { token =>
+          withIdToken(dfnIdToken(tree, name)) { token =>
             val dfn = ScalaDfn(sym, token, kind, scope, fo)
             if (scopes.top.addDfn(dfn)) logInfo("\tAdded: ", dfn)
           }
 
-          atOwner(sym, scope) {
+          if (!syntaxOnly) atOwner(sym, scope) {
             traverseAnnots(sym)
             traverseTrees(mods.annotations)
             traverseTrees(tparams)
@@ -653,6 +924,13 @@ trait ScalaAstVisitor { self: ScalaGlobal =>
       members filter { _.name.toTermName == targetName }
     }
 
+    /**
+     * Under syntaxOnly there is no symbol to get the name from, the name of tree is used then
+     */
+    private def dfnIdToken(tree: Tree, name: Name): Option[Token[TokenId]] = {
+      if (syntaxOnly) getIdToken(tree, name.decode) else getIdToken(tree)
+    }
+
     private def withIdToken(idToken: Option[Token[TokenId]])(op: Token[TokenId] => Unit) {
       if (idToken.isDefined) op(idToken.get)
     }
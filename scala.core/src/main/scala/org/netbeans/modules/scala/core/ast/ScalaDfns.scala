@@ -103,7 +103,7 @@ trait ScalaDfns { self: ScalaGlobal =>
     }
 
     def htmlFormat(fm: HtmlFormatter) {
-      ScalaUtil.askForHtmlFormat(symbol, fm)
+      if (symbol == NoSymbol) fm.appendText(getName) else ScalaUtil.askForHtmlFormat(symbol, fm)
     }
 
     def sigFormat(fm: HtmlFormatter) {
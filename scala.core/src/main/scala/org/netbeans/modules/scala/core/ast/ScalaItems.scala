@@ -51,10 +51,11 @@ trait ScalaItems { self: ScalaGlobal =>
     type T = Type
 
     override def getKind: ElementKind = {
-      if (symbol == NoSymbol) return ElementKind.OTHER
-
+      // * explicitly set kind first, dfns visited from an untyped tree have NoSymbol but known kind
       if (super.getKind != ElementKind.OTHER) return super.getKind
 
+      if (symbol == NoSymbol) return ElementKind.OTHER
+
       if (symbol hasFlag Flags.ACCESSOR) return ElementKind.FIELD
       if (symbol hasFlag Flags.METHOD) return ElementKind.METHOD
       if (symbol hasFlag Flags.MODULE) return ElementKind.MODULE
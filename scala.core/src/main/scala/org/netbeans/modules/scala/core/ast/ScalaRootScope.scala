@@ -43,6 +43,12 @@ import org.netbeans.api.lexer.TokenId
 import org.netbeans.api.language.util.ast.AstRootScope
 
 class ScalaRootScope(boundsTokens: Array[Token[TokenId]]) extends AstRootScope(boundsTokens) {
+  /**
+   * How many region visits this root has been built upon since the last full visit,
+   * @see org.netbeans.modules.scala.core.EditRegion
+   */
+  private[scala] var regionRuns = 0
+
   //  def findDfnOfSym(symbol:AstSymbol[_]): Option[AstDfn] = {
   //    _idTokenToItem.values.find{item =>
   //      // ElementKind.Rule is "-spec", we won't let it as
@@ -65,17 +65,35 @@ class ScalaLexer(info: LexerRestartInfo[TokenId]) extends Lexer[TokenId] {
   private val input = info.input
   private val tokenFactory = info.tokenFactory
   private val lexerInputReader = new LexerInputReader(input)
-  private val st = new State(Nil, 0)
+  private val st = new State(new TokenBuffer, 0)
+
+  if (info.state ne null) {
+    // * the lookahead of batched tokens should have made incremental lexer restart from a safe point, see nextToken
+    log.fine("Restarted inside batched tokens: " + info.state)
+  }
 
   override def release = {}
 
-  override def state: Object = null
+  /**
+   * The state after the token just created. Rats! scans one Token production per reScanTokens,
+   * which is context free except for xml literals, whose elements, attributes and embedded
+   * { ... } come as one batch of tokens. So the state is null (a safe point to restart or
+   * to resync) between batches, and InBatch inside a batch, incremental lexer will then
+   * stop relexing only when both the token boundary and the remaining part of batch match
+   * the previous ones.
+   */
+  override def state: Object = {
+    val tokens = st.tokenStream
+    if (tokens.isEmpty || tokens.size == 1 && tokens.headLength == 0) null
+    else InBatch(tokens.size, st.lookahead)
+  }
 
   override def nextToken: Token[TokenId] = st synchronized {
+    val tokens = st.tokenStream
     // In case of embedded tokens, there may be tokens that had been scanned
     // but not taken yet, check first
-    if (st.tokenStream.isEmpty) {
-      st.tokenStream = reScanTokens
+    if (tokens.isEmpty) {
+      reScanTokens(tokens)
 
       /**
        * @Bug of LexerInput.backup(int) ?
@@ -90,41 +108,41 @@ class ScalaLexer(info: LexerRestartInfo[TokenId]) extends Lexer[TokenId] {
       }
     }
 
-    st.tokenStream match {
-      case tokenInfo @ TokenInfo(tkLen, id) :: tail =>
-        // shift tokenStream
-        st.tokenStream = tail
+    if (tokens.isEmpty) {
+      assert(false, "unrecognized input: " + input.read.toChar)
+      return null
+    }
 
-        if (tkLen == 0) { // EOF
-          return null
-        }
+    // shift tokenStream
+    val tkLen = tokens.headLength
+    val id = ScalaTokenId.tokenIdOf(tokens.headOrdinal)
+    tokens.dequeue
 
-        // seed token's chars according to tokenInfo.length
-        seed(input, tkLen)
-        st.lookahead -= tkLen
-
-        // see if needs to lookahead, if true, perform it
-        // to cheat incremently lexer, we needs to lookahead one more char when
-        // tokens.size() > 1 (batched tokens that are not context free),
-        // so, when modification happens exactly behind latest token, will
-        // force lexer relexer from the 1st token of tokenStream
-        // Although lookahead 1 char is enough in theory, I notices that under some
-        // cases, for example the '*/' may be scanned as * and /. anyway, let's lookahead
-        // a bit more, 3 here.
-        val lookahead = if (tail.isEmpty) st.lookahead else st.lookahead + 3
-        if (lookahead > 0) {
-          seed(input, lookahead)
-          input.backup(lookahead)
-        }
+    if (tkLen == 0) { // EOF
+      return null
+    }
 
-        val readLen = input.readLength
-        assert(readLen > 0, "Token's read length " + readLen + " should > 0: " + tokenInfo)
-        createToken(id, readLen)
+    // seed token's chars according to token's length
+    seed(input, tkLen)
+    st.lookahead -= tkLen
 
-      case Nil =>
-        assert(false, "unrecognized input: " + input.read.toChar)
-        null
+    // see if needs to lookahead, if true, perform it
+    // to cheat incremently lexer, we needs to lookahead one more char when
+    // tokens.size() > 1 (batched tokens that are not context free),
+    // so, when modification happens exactly behind latest token, will
+    // force lexer relexer from the 1st token of tokenStream
+    // Although lookahead 1 char is enough in theory, I notices that under some
+    // cases, for example the '*/' may be scanned as * and /. anyway, let's lookahead
+    // a bit more, 3 here.
+    val lookahead = if (tokens.isEmpty) st.lookahead else st.lookahead + 3
+    if (lookahead > 0) {
+      seed(input, lookahead)
+      input.backup(lookahead)
     }
+
+    val readLen = input.readLength
+    assert(readLen > 0, "Token's read length " + readLen + " should > 0: " + id)
+    createToken(id, readLen)
   }
 
   private def seed(input: LexerInput, n: Int) {
@@ -140,32 +158,39 @@ class ScalaLexer(info: LexerRestartInfo[TokenId]) extends Lexer[TokenId] {
     case fixedText => tokenFactory.getFlyweightToken(id, fixedText)
   }
 
-  private def reScanTokens: List[TokenInfo] = {
+  private def reScanTokens(tokens: TokenBuffer) {
     /**
      * We cannot keep an instance scope lexer, since lexer (sub-class of ParserBase)
      * has internal states which keeps the read-in chars, index and others, it really
      * difficult to handle.
+     *
+     * A token is usually far shorter than ParserBase's default 4096 chars, so create it
+     * with a small buffer, it will grow when needed.
      */
-    val scanner = new LexerScala(lexerInputReader, "<current>")
-    val tokens = try {
+    val scanner = new LexerScala(lexerInputReader, "<current>", ScanBufferSize - 1)
+    // * input.readLength should count only the chars of tokens scanned, do not read ahead
+    scanner.setBulkRead(false)
+    try {
       // ust scan from position 0, incrmental lexer engine will handle start char in lexerInputReader
       val r = scanner.pToken(0)
+      /**
+       * @Note the tokens still come from the GNode tree of the successful parse, the scanner
+       * can not emit them into `tokens` as soon as it creates a node: a node may be created
+       * in an alternative that is backtracked later, and a memoized node is reused without
+       * being created again.
+       */
       if (r.hasValue) {
         val node = r.semanticValue.asInstanceOf[GNode]
-        flattenTokens(node, Nil)
+        flattenTokens(node, tokens)
       } else {
         log.warning(r.parseError.msg)
-        Nil
       }
     } catch {
-      case ex: Throwable => log.log(Level.SEVERE, ex.getMessage, ex); Nil
+      case ex: Throwable => log.log(Level.SEVERE, ex.getMessage, ex); tokens.clear
     }
-
-    tokens.reverse
   }
 
-  private def flattenTokens(node: GNode, _tokens: List[TokenInfo]): List[TokenInfo] = {
-    var tokens = _tokens
+  private def flattenTokens(node: GNode, tokens: TokenBuffer) {
     val size = node.size
     if (size == 0) {
       /**
@@ -175,37 +200,31 @@ class ScalaLexer(info: LexerRestartInfo[TokenId]) extends Lexer[TokenId] {
        *
        * And in Rats!, EOF is !_, the input.readLength() will return 0
        */
-      val tokenInfo = if (input.readLength == 0) {
-        TokenInfo(0, null)
+      if (input.readLength == 0) {
+        tokens.enqueue(0, -1)
       } else {
         log.severe("This GNode: '" + node.getName + "' is a void node, this should happen only on EOF. Check you rats file.")
         // best try:
-        TokenInfo(input.readLength, ScalaTokenId.Ws)
+        tokens.enqueue(input.readLength, ScalaTokenId.Ws.ordinal)
       }
-
-      tokens ::= tokenInfo
     } else {
       var i = 0
       while (i < size) {
         node.get(i) match {
           case null => // child may be null
           case child: GNode =>
-            tokens = flattenTokens(child, tokens)
+            flattenTokens(child, tokens)
           case child: Pair[_] =>
             assert(false, "Pair:" + child + " to be process, do you add 'flatten' option on grammar file?")
           case child: String =>
-            val length = child.length
             val id = ScalaTokenId.tokenIdOf(node.getName).getOrElse(ScalaTokenId.IGNORED)
-            val tokenInfo = TokenInfo(length, id)
-            tokens ::= tokenInfo
+            tokens.enqueue(child.length, id.ordinal)
           case child =>
             log.warning("To be process: " + child)
         }
         i += 1
       }
     }
-
-    tokens
   }
 
 }
@@ -213,8 +232,64 @@ class ScalaLexer(info: LexerRestartInfo[TokenId]) extends Lexer[TokenId] {
 object ScalaLexer {
   val log = Logger.getLogger(classOf[ScalaLexer].getName)
 
-  private case class TokenInfo(length: Int, id: ScalaTokenId)
-  private class State(var tokenStream: List[TokenInfo], var lookahead: Int)
+  private val ScanBufferSize = 64
+
+  private class State(val tokenStream: TokenBuffer, var lookahead: Int)
+
+  /**
+   * Scanned but not taken tokens, as (length, ScalaTokenId ordinal) pairs in primitive arrays
+   * that are reused by all scans of a lexer. An EOF is length 0 with ordinal -1.
+   */
+  private final class TokenBuffer {
+    private var lengths = new Array[Int](16)
+    private var ordinals = new Array[Int](16)
+    private var head = 0
+    private var tail = 0
+
+    def isEmpty = head == tail
+    def size = tail - head
+    def headLength = lengths(head)
+    def headOrdinal = ordinals(head)
+
+    def enqueue(length: Int, ordinal: Int) {
+      if (tail == lengths.length) {
+        if (head > 0) compact else grow
+      }
+      lengths(tail) = length
+      ordinals(tail) = ordinal
+      tail += 1
+    }
+
+    def dequeue {
+      head += 1
+      if (head == tail) clear
+    }
+
+    def clear {
+      head = 0
+      tail = 0
+    }
+
+    private def compact {
+      val n = tail - head
+      System.arraycopy(lengths, head, lengths, 0, n)
+      System.arraycopy(ordinals, head, ordinals, 0, n)
+      head = 0
+      tail = n
+    }
+
+    private def grow {
+      lengths = java.util.Arrays.copyOf(lengths, lengths.length * 2)
+      ordinals = java.util.Arrays.copyOf(ordinals, ordinals.length * 2)
+    }
+  }
+
+  /**
+   * Lexer state inside a batch of tokens
+   * @param tokens number of tokens left in batch
+   * @param chars  number of chars left in batch
+   */
+  final case class InBatch(tokens: Int, chars: Int)
 
   /**
    * Hacking for <code>xtc.parser.ParserBase</code> of Rats! which use <code>java.io.Reader</code>
@@ -228,7 +303,15 @@ object ScalaLexer {
     }
 
     override def read(cbuf: Array[Char], off: Int, len: Int): Int = {
-      throw new UnsupportedOperationException("Not supported yet.")
+      var i = 0
+      while (i < len) {
+        input.read match {
+          case LexerInput.EOF => return if (i == 0) -1 else i
+          case c              => cbuf(off + i) = c.toChar
+        }
+        i += 1
+      }
+      i
     }
 
     override def close = {}
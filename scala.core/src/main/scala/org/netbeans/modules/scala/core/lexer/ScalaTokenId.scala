@@ -74,16 +74,21 @@ class ScalaTokenId private (val ordinal: Int, val name: String, val fixedText: S
 object ScalaTokenId {
   private var lastOrdinal = 0
   private val values = new mutable.HashMap[String, ScalaTokenId]()
+  private val byOrdinal = new mutable.ArrayBuffer[ScalaTokenId]()
 
   private def apply(name: String, fixedText: String, primaryCategory: String) = {
     val x = new ScalaTokenId(lastOrdinal, name, fixedText, primaryCategory)
     lastOrdinal += 1
     values(name) = x
+    byOrdinal += x
     x
   }
 
   def tokenIdOf(name: String): Option[ScalaTokenId] = values.get(name)
 
+  /** @return token id of ordinal, or null if ordinal is -1 */
+  def tokenIdOf(ordinal: Int): ScalaTokenId = if (ordinal == -1) null else byOrdinal(ordinal)
+
   val IGNORED = ScalaTokenId("IGNORED", null, "ignored")
 
   val Keyword = ScalaTokenId("Keyword", null, "keyword")
@@ -0,0 +1,39 @@
+package org.netbeans.api.language.util.ast
+
+import org.junit.Assert
+import org.junit.Test
+import org.netbeans.api.lexer.{ Token, TokenId }
+
+class TokenIndexTest {
+
+  /** tokens are not read by indexOf, only offsets and lengths */
+  private def tokenIndex(offsets: Array[Int], lengths: Array[Int]) = {
+    new AstRootScope.TokenIndex(new Array[Token[TokenId]](offsets.length), new Array[List[AstItem]](offsets.length), offsets, lengths)
+  }
+
+  @Test
+  def testIndexOfContainingToken(): Unit = {
+    val index = tokenIndex(Array(0, 10, 20), Array(3, 3, 3))
+
+    Assert.assertEquals(0, index.indexOf(0))
+    Assert.assertEquals(0, index.indexOf(3)) // * end is inclusive, caret just after an identifier
+    Assert.assertEquals(1, index.indexOf(10))
+    Assert.assertEquals(1, index.indexOf(12))
+    Assert.assertEquals(2, index.indexOf(23))
+  }
+
+  @Test
+  def testInsertionPointWhenNotFound(): Unit = {
+    val index = tokenIndex(Array(0, 10, 20), Array(3, 3, 3))
+
+    Assert.assertEquals(-2, index.indexOf(5))
+    Assert.assertEquals(-3, index.indexOf(15))
+    Assert.assertEquals(-4, index.indexOf(30))
+    Assert.assertEquals(-1, tokenIndex(Array(5), Array(2)).indexOf(1))
+  }
+
+  @Test
+  def testEmptyIndex(): Unit = {
+    Assert.assertEquals(-1, tokenIndex(Array(), Array()).indexOf(0))
+  }
+}
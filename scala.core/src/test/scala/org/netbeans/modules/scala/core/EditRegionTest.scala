@@ -0,0 +1,44 @@
+package org.netbeans.modules.scala.core
+
+import org.junit.Assert
+import org.junit.Test
+
+class EditRegionTest {
+
+  @Test
+  def testSameTextHasNoChangedRange(): Unit = {
+    Assert.assertEquals(None, EditRegion.changedRange("def f = 1", "def f = 1"))
+  }
+
+  @Test
+  def testInsertion(): Unit = {
+    Assert.assertEquals(Some((4, 4, 1)), EditRegion.changedRange("abcXdef", "abcXYdef"))
+  }
+
+  @Test
+  def testDeletion(): Unit = {
+    Assert.assertEquals(Some((4, 5, -1)), EditRegion.changedRange("abcXYdef", "abcXdef"))
+  }
+
+  @Test
+  def testReplacement(): Unit = {
+    Assert.assertEquals(Some((8, 9, 0)), EditRegion.changedRange("val x = 1", "val x = 2"))
+  }
+
+  @Test
+  def testCommonPrefixAndSuffixDoNotOverlap(): Unit = {
+    Assert.assertEquals(Some((3, 3, 1)), EditRegion.changedRange("aaa", "aaaa"))
+    Assert.assertEquals(Some((3, 4, -1)), EditRegion.changedRange("aaaa", "aaa"))
+  }
+
+  @Test
+  def testNewOffset(): Unit = {
+    // [10, 12) is replaced by 5 chars
+    def newOffset(oldOffset: Int, length: Int) = EditRegion.newOffset(10, 12, 3, oldOffset, length)
+
+    Assert.assertEquals(5, newOffset(5, 5))
+    Assert.assertEquals(-1, newOffset(5, 6))
+    Assert.assertEquals(-1, newOffset(11, 1))
+    Assert.assertEquals(15, newOffset(12, 2))
+  }
+}
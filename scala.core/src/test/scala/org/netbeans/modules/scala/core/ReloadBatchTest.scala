@@ -0,0 +1,49 @@
+package org.netbeans.modules.scala.core
+
+import org.junit.Assert
+import org.junit.Test
+
+class ReloadBatchTest {
+
+  @Test
+  def testDuplicatesAreCoalesced(): Unit = {
+    val batch = new ScalaGlobal.ReloadBatch[String]
+    batch.reload("A.scala", 1)
+    batch.reload("B.scala", 2)
+    batch.reload("A.scala", 3)
+
+    Assert.assertEquals((List("A.scala", "B.scala"), Nil), batch.drain())
+  }
+
+  @Test
+  def testLatestEventWins(): Unit = {
+    val batch = new ScalaGlobal.ReloadBatch[String]
+    batch.reload("A.scala", 1)
+    batch.delete("A.scala", 2)
+    batch.delete("B.scala", 3)
+    batch.reload("B.scala", 4)
+
+    Assert.assertEquals((List("B.scala"), List("A.scala")), batch.drain())
+  }
+
+  @Test
+  def testDrainClears(): Unit = {
+    val batch = new ScalaGlobal.ReloadBatch[String]
+    batch.reload("A.scala", 1)
+    batch.drain()
+
+    Assert.assertEquals((Nil, Nil), batch.drain())
+  }
+
+  @Test
+  def testDelayIsBoundedUnderContinuousEvents(): Unit = {
+    val batch = new ScalaGlobal.ReloadBatch[String]
+    Assert.assertEquals(ScalaGlobal.ReloadDelay, batch.reload("A.scala", 1000))
+    Assert.assertEquals(ScalaGlobal.ReloadDelay, batch.reload("B.scala", 1000 + ScalaGlobal.MaxReloadDelay - 1))
+    Assert.assertEquals(0, batch.reload("C.scala", 1000 + ScalaGlobal.MaxReloadDelay))
+
+    // * a new batch starts after drain
+    batch.drain()
+    Assert.assertEquals(ScalaGlobal.ReloadDelay, batch.reload("A.scala", 1000 + 2 * ScalaGlobal.MaxReloadDelay))
+  }
+}
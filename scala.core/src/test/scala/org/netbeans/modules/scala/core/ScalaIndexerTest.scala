@@ -0,0 +1,35 @@
+package org.netbeans.modules.scala.core
+
+import org.junit.Assert
+import org.junit.Test
+import org.netbeans.modules.csl.api.ElementKind
+
+class ScalaIndexerTest {
+
+  @Test
+  def testItemRoundTrip(): Unit = {
+    val item = ScalaIndexer.Item("map", ElementKind.METHOD, "scala.collection.Seq", 120, 123)
+    Assert.assertEquals(Some(item), ScalaIndexer.Item.decode(item.encode))
+    Assert.assertEquals("scala.collection.Seq.map", item.qualifiedName)
+  }
+
+  @Test
+  def testBackQuotedNameWithSemicolon(): Unit = {
+    val item = ScalaIndexer.Item("a;b", ElementKind.FIELD, "", 5, 8)
+    Assert.assertEquals(Some(item), ScalaIndexer.Item.decode(item.encode))
+    Assert.assertEquals("a;b", item.qualifiedName)
+  }
+
+  @Test
+  def testMalformedValues(): Unit = {
+    Assert.assertEquals(None, ScalaIndexer.Item.decode("map`METHOD`Seq`120"))
+    Assert.assertEquals(None, ScalaIndexer.Item.decode("map`NOKIND`Seq`120`123"))
+    Assert.assertEquals(None, ScalaIndexer.Item.decode("map`METHOD`Seq`x`123"))
+  }
+
+  @Test
+  def testIdentifierName(): Unit = {
+    Assert.assertEquals("type", ScalaIndexer.identifierName("`type`"))
+    Assert.assertEquals("`", ScalaIndexer.identifierName("`"))
+  }
+}
@@ -54,8 +54,10 @@ import org.netbeans.modules.csl.api.SemanticAnalyzer;
 import org.netbeans.modules.csl.api.StructureScanner;
 import org.netbeans.modules.csl.spi.DefaultLanguageConfig;
 import org.netbeans.modules.csl.spi.LanguageRegistration;
+import org.netbeans.modules.parsing.spi.indexing.EmbeddingIndexerFactory;
 import org.netbeans.modules.parsing.spi.indexing.PathRecognizerRegistration;
 import org.netbeans.modules.parsing.spi.Parser;
+import org.netbeans.modules.scala.core.ScalaIndexerFactory;
 import org.netbeans.modules.scala.core.ScalaParser;
 import org.netbeans.modules.scala.core.lexer.ScalaTokenId;
 import org.netbeans.modules.scala.hints.ScalaHintsProvider;
@@ -203,5 +205,9 @@ public class ScalaLanguage extends DefaultLanguageConfig {
     public HintsProvider getHintsProvider() {
         return new ScalaHintsProvider();
     }
-    //@Override def getIndexerFactory = new ScalaIndexer.Factory
+
+    @Override
+    public EmbeddingIndexerFactory getIndexerFactory() {
+        return new ScalaIndexerFactory();
+    }
 }
@@ -51,6 +51,7 @@ import org.netbeans.modules.csl.spi.{ DefaultCompletionResult, ParserResult }
 import org.netbeans.modules.parsing.spi.indexing.support.QuerySupport
 import org.openide.util.Exceptions
 
+import org.netbeans.modules.scala.core.ScalaGlobal
 import org.netbeans.modules.scala.core.ScalaParserResult
 import org.netbeans.modules.scala.core.ScalaSourceUtil
 import org.netbeans.modules.scala.core.ScalaSymbolResolver
@@ -91,6 +92,8 @@ class ScalaCodeCompleter(val pr: ScalaParserResult) {
   var kind: QuerySupport.Kind = _
   var queryType: QueryType = _
   var fqn: String = _
+
+  private val createdAt = System.currentTimeMillis
   //var index: ScalaIndex = _
 
   final case class Call(base: Token[TokenId], dot: Token[TokenId], select: Token[TokenId])
@@ -320,7 +323,18 @@ class ScalaCodeCompleter(val pr: ScalaParserResult) {
       return false
     }
 
-    val cpInfo = ScalaSourceUtil.getClasspathInfo(pr.getSnapshot.getSource.getFileObject).getOrElse(return true)
+    val fo = pr.getSnapshot.getSource.getFileObject
+    TypeNameIndex.get(fo) flatMap (_.find(prefix, caseSensitive)) match {
+      case Some(tpElements) =>
+        for (tpElement <- tpElements) {
+          val jElement = global.JavaElement(tpElement)
+          proposals.add(TypeProposal(jElement, this))
+        }
+        return tpElements.nonEmpty
+      case None => // index is not ready yet
+    }
+
+    val cpInfo = ScalaSourceUtil.getClasspathInfo(fo).getOrElse(return true)
     val tpElements = cpInfo.getClassIndex.getDeclaredTypes(prefix, NameKind.CASE_INSENSITIVE_PREFIX,
       java.util.EnumSet.allOf(classOf[ClassIndex.SearchScope]))
 
@@ -471,64 +485,139 @@ class ScalaCodeCompleter(val pr: ScalaParserResult) {
     true
   }
 
-  def completeScope(proposals: java.util.List[CompletionProposal]) {
-    //pResult.toTyped
+  /**
+   * Local definitions of the semantic root scope, enclosing astOffset, if this result has been
+   * typechecked already. They are cheap proposals when scope members from compiler are not ready
+   * in time, so nothing is asked from the compiler here, which has just missed the deadline.
+   */
+  def completeLocalDfns(proposals: java.util.List[CompletionProposal]) {
+    val root = pr.semanticRootScope match {
+      case Some(x) => x
+      case None    => return
+    }
+    val names = new java.util.HashSet[String]
+    var scope = root.closestScope(th, astOffset)
+    while (scope.isDefined) {
+      for (dfn <- scope.get.dfns if startsWith(dfn.getName, prefix) && names.add(dfn.getName)) {
+        val proposal = PlainProposal(dfn, this)
+        proposal.setSmart(true)
+        proposals.add(proposal)
+      }
+      scope = scope.get.parent
+    }
+  }
 
-    val pos = global.rangePos(pr.srcFile, lexOffset, lexOffset, lexOffset)
-    val resp = new global.Response[List[global.Member]]
-    global.askScopeCompletion(pos, resp)
-    resp.get match {
-      case Left(members) =>
-        for (global.ScopeMember(sym, tpe, accessible, viaImport) <- members if accessible && startsWith(sym.nameString, prefix)) {
-          if (!sym.isType && !sym.isClass && !sym.isTrait && !sym.isModule && !sym.isModuleClass && !sym.isTypeParameter) {
-            val s = sym
-            val t = tpe
-            val prio = try {
-              tpe match {
-                case _: global.TypeRef                      => 0
-                case _: global.MethodType if sym.isImplicit => 1
-                case _: global.MethodType                   => -1
-                case _: global.NullaryMethodType            => -1
-                case _: global.TypeVar                      => -3
-                case _                                      => 0
-              }
-            } catch { case _: Throwable => 0 }
-
-            createSymbolProposal(sym) foreach { proposal =>
-              proposal.setSortPrioOverride(prio)
-              proposal.setSmart(sym.isLocalToBlock || sym.isLocalToThis)
-              proposals.add(proposal)
+  /** Post the scope completion request, so compiler goes on it while cheap proposals are collected */
+  def requestScope() {
+    scopeSession
+  }
+
+  private lazy val scopeSession = {
+    val identStart = lexOffset - prefix.length
+    CompletionSession.lookup(global, pr, ScopeCompletion, identStart, lexOffset) getOrElse {
+      val pos = global.rangePos(pr.srcFile, lexOffset, lexOffset, lexOffset)
+      val resp = new global.Response[List[global.Member]]
+      global.askScopeCompletion(pos, resp)
+      CompletionSession.start(global, pr, ScopeCompletion, identStart, lexOffset) { timeout =>
+        (if (timeout > 0) resp.get(timeout) else Some(resp.get)) map {
+          case Left(members) =>
+            val cached = for (global.ScopeMember(sym, tpe, accessible, viaImport) <- members if accessible) yield {
+              if (!sym.isType && !sym.isClass && !sym.isTrait && !sym.isModule && !sym.isModuleClass && !sym.isTypeParameter) {
+                val prio = try {
+                  tpe match {
+                    case _: global.TypeRef                      => 0
+                    case _: global.MethodType if sym.isImplicit => 1
+                    case _: global.MethodType                   => -1
+                    case _: global.NullaryMethodType            => -1
+                    case _: global.TypeVar                      => -3
+                    case _                                      => 0
+                  }
+                } catch { case _: Throwable => 0 }
+
+                Some(new CachedMember(sym.nameString, sym, false, false, prio, sym.isLocalToBlock || sym.isLocalToThis))
+              } else None
             }
-          }
+            cached.flatten.toArray
+          case Right(ex) =>
+            global.processGlobalException(ex) // there may be scala.tools.nsc.FatalError: no context found for scala.tools.nsc.util.OffsetPosition@e302cef1
+            null
         }
-      case Right(ex) => global.processGlobalException(ex) // there may be scala.tools.nsc.FatalError: no context found for scala.tools.nsc.util.OffsetPosition@e302cef1
+      }
     }
   }
 
+  /**
+   * @return false if scope members are not got before the deadline
+   */
+  def completeScope(proposals: java.util.List[CompletionProposal]): Boolean = {
+    //pResult.toTyped
+
+    val members = scopeSession.members(timeLeft) getOrElse {
+      truncated()
+      return false
+    }
+
+    for (member <- members if startsWith(member.name, prefix)) {
+      createSymbolProposal(member.sym.asInstanceOf[global.Symbol]) foreach { proposal =>
+        proposal.setSortPrioOverride(member.prio)
+        proposal.setSmart(member.isSmart)
+        proposals.add(proposal)
+      }
+    }
+    true
+  }
+
   def completeSymbolMembers(baseToken: Token[TokenId], proposals: java.util.List[CompletionProposal]): Boolean = {
     //pResult.toTyped
 
     val offset = baseToken.offset(th)
     val endOffset = offset + baseToken.length - 1
-    val pos = global.rangePos(pr.srcFile, offset, offset, endOffset)
-    val resp = new global.Response[List[global.Member]]
-    global.askTypeCompletion(pos, resp)
-    resp.get match {
-      case Left(members) =>
-        for (global.TypeMember(sym, tpe, accessible, inherited, viaView) <- members if accessible && startsWith(sym.nameString, prefix) && !sym.isConstructor) {
-          createSymbolProposal(sym) foreach { proposal =>
-            proposal.getElement.asInstanceOf[global.ScalaElement].isInherited = inherited
-            proposal.getElement.asInstanceOf[global.ScalaElement].isImplicit = (viaView != global.NoSymbol)
+    // * text between the qualifier and caret is the selector being typed
+    val session = CompletionSession.lookup(global, pr, MembersCompletion, endOffset + 1, lexOffset) getOrElse {
+      val pos = global.rangePos(pr.srcFile, offset, offset, endOffset)
+      val resp = new global.Response[List[global.Member]]
+      global.askTypeCompletion(pos, resp)
+      CompletionSession.start(global, pr, MembersCompletion, endOffset + 1, lexOffset) { timeout =>
+        (if (timeout > 0) resp.get(timeout) else Some(resp.get)) map {
+          case Left(members) =>
+            val cached = for (global.TypeMember(sym, tpe, accessible, inherited, viaView) <- members if accessible && !sym.isConstructor) yield {
+              new CachedMember(sym.nameString, sym, inherited, viaView != global.NoSymbol, 0, false)
+            }
+            cached.toArray
+          case Right(ex) =>
+            global.processGlobalException(ex)
+            null
+        }
+      }
+    }
+
+    session.members(timeLeft) match {
+      case Some(members) =>
+        for (member <- members if startsWith(member.name, prefix)) {
+          createSymbolProposal(member.sym.asInstanceOf[global.Symbol]) foreach { proposal =>
+            proposal.getElement.asInstanceOf[global.ScalaElement].isInherited = member.isInherited
+            proposal.getElement.asInstanceOf[global.ScalaElement].isImplicit = member.isImplicit
             proposals.add(proposal)
           }
         }
-      case Right(ex) => global.processGlobalException(ex)
+      case None => truncated()
     }
 
     // always return true ?
     true
   }
 
+  /** @return timeout in milliseconds to wait for compiler, 0 means waiting until answered */
+  private def timeLeft: Long = {
+    if (isAsync) math.max(1L, createdAt + Deadline - System.currentTimeMillis) else 0L
+  }
+
+  /** Ask for a new query on next key typed, that will get members ready by then */
+  private def truncated() {
+    completionResult.setTruncated(true)
+    completionResult.setFilterable(false)
+  }
+
   private def createSymbolProposal(sym: global.Symbol): Option[ScalaCompletionProposal] = {
     if (sym.isMethod) {
       val element = global.ScalaElement(sym, pr)
@@ -563,6 +652,116 @@ class ScalaCodeCompleter(val pr: ScalaParserResult) {
 }
 
 object ScalaCodeCompleter {
+  private[editor] val ScopeCompletion = 0
+  private[editor] val MembersCompletion = 1
+
+  /** An accessible member as got from compiler, before being filtered by prefix */
+  private[editor] final class CachedMember(val name: String, val sym: AnyRef,
+                                           val isInherited: Boolean, val isImplicit: Boolean,
+                                           val prio: Int, val isSmart: Boolean)
+
+  /**
+   * Milliseconds that completion waits for compiler before showing what it has, set by
+   * -Dscala.completion.deadline, 0 to wait as long as the compiler takes
+   */
+  val Deadline = Integer.getInteger("scala.completion.deadline", 1000).intValue
+
+  def isAsync = Deadline > 0
+
+  /**
+   * Members got by the latest scope or type completion. While user is typing the identifier at
+   * the same place, i.e. only text in [identStart, identEnd) has changed, the members are the
+   * same ones and are just filtered by the new prefix, so compiler is not asked again.
+   *
+   * @param fetch wait for the compiler's answer at most timeout milliseconds, the members are null
+   *        if compiler fails
+   */
+  private[editor] final class CompletionSession(val global: ScalaGlobal, val srcPath: String, val kind: Int,
+                                                val text: CharSequence, val identStart: Int, val identEnd: Int,
+                                                fetch: Long => Option[Array[CachedMember]]) {
+    @volatile private var _members: Option[Array[CachedMember]] = None
+
+    /**
+     * @return None if compiler does not answer in timeout
+     */
+    def members(timeout: Long): Option[Array[CachedMember]] = {
+      if (_members.isEmpty) {
+        fetch(timeout) foreach {
+          case null =>
+            CompletionSession.drop(this)
+            _members = Some(Array[CachedMember]())
+          case xs => _members = Some(xs)
+        }
+      }
+      _members
+    }
+
+    def isValidFor(global: ScalaGlobal, srcPath: String, kind: Int, text: CharSequence, identStart: Int, identEnd: Int): Boolean = {
+      (this.global eq global) && this.kind == kind && this.identStart == identStart && this.srcPath == srcPath &&
+        text.length - identEnd == this.text.length - this.identEnd &&
+        regionMatches(text, 0, this.text, 0, identStart) &&
+        regionMatches(text, identEnd, this.text, this.identEnd, text.length - identEnd)
+    }
+
+    private def regionMatches(a: CharSequence, aStart: Int, b: CharSequence, bStart: Int, length: Int): Boolean = {
+      var i = 0
+      while (i < length) {
+        if (a.charAt(aStart + i) != b.charAt(bStart + i)) {
+          return false
+        }
+        i += 1
+      }
+      true
+    }
+  }
+
+  private[editor] object CompletionSession {
+    @volatile private var current: CompletionSession = _
+
+    // * the session keeps its global, symbols and parser result, do not keep them once the
+    // * global is shut down, for example evicted on low memory
+    ScalaGlobal.addShutdownListener { global => dropOf(global) }
+
+    def lookup(global: ScalaGlobal, pr: ScalaParserResult, kind: Int, identStart: Int, identEnd: Int): Option[CompletionSession] = {
+      lookup(global, pr.srcFile.path, kind, pr.getSnapshot.getText, identStart, identEnd)
+    }
+
+    private[editor] def lookup(global: ScalaGlobal, srcPath: String, kind: Int, text: CharSequence, identStart: Int, identEnd: Int): Option[CompletionSession] = {
+      current match {
+        case null => None
+        case x if (x.global ne null) && x.global.isShutdown =>
+          drop(x)
+          None
+        case x =>
+          if (x.isValidFor(global, srcPath, kind, text, identStart, identEnd)) Some(x)
+          else None
+      }
+    }
+
+    def start(global: ScalaGlobal, pr: ScalaParserResult, kind: Int, identStart: Int, identEnd: Int)(fetch: Long => Option[Array[CachedMember]]): CompletionSession = {
+      start(new CompletionSession(global, pr.srcFile.path, kind, pr.getSnapshot.getText, identStart, identEnd, fetch))
+    }
+
+    private[editor] def start(session: CompletionSession): CompletionSession = {
+      current = session
+      session
+    }
+
+    /** A failed session should not be reused */
+    def drop(session: CompletionSession) {
+      if (current eq session) current = null
+    }
+
+    private[editor] def dropOf(global: ScalaGlobal) {
+      current match {
+        case null =>
+        case x    => if (x.global eq global) drop(x)
+      }
+    }
+
+    private[editor] def isCurrent(session: CompletionSession) = current eq session
+  }
+
   // Dbl-space lines to keep formatter from collapsing pairs into a block
   private val REGEXP_WORDS = Array("\\0", "The NUL character (\\u0000)",
     "\\t", "Tab (\\u0009)",
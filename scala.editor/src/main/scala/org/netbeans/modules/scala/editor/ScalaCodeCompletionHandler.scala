@@ -126,8 +126,13 @@ class ScalaCodeCompletionHandler extends CodeCompletionHandler with ScalaHtmlFor
 
     val pr = context.getParserResult.asInstanceOf[ScalaParserResult]
 
+    /**
+     * In async mode, do not wait for the whole file being typechecked, completion typechecks
+     * what it needs once the source is loaded.
+     */
     def needSemantice() = {
-      pr.rootScope // call lazy val rootScope
+      if (ScalaCodeCompleter.isAsync) pr.global.askForLoad(pr.srcFile, ScalaCodeCompleter.Deadline)
+      else pr.rootScope // call lazy val rootScope
     }
 
     val lexOffset = context.getCaretOffset
@@ -256,10 +261,13 @@ class ScalaCodeCompletionHandler extends CodeCompletionHandler with ScalaHtmlFor
       }
 
       needSemantice()
-      // try all posibilities
+      // try all posibilities, cheap ones are collected while compiler is working on scope
+      completer.requestScope()
       completer.completeType(proposals)
-      completer.completeScope(proposals)
-      //completer.completeKeywords(proposals)
+      if (!completer.completeScope(proposals)) {
+        completer.completeLocalDfns(proposals)
+        completer.completeKeywords(proposals)
+      }
 
     } finally {
       doc.readUnlock
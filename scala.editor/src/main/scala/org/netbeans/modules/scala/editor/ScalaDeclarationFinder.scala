@@ -86,6 +86,28 @@ class ScalaDeclarationFinder extends DeclarationFinder {
     }
   }
 
+  /**
+   * When the source could not be typechecked, try the dfn of same name in the closest enclosing scope
+   * of the syntax only root.
+   */
+  private def findSyntaxDeclaration(pr: ScalaParserResult, th: TokenHierarchy[_], astOffset: Int): DeclarationLocation = {
+    val ts = ScalaLexUtil.getTokenSequence(null, th, astOffset).getOrElse(return DeclarationLocation.NONE)
+    ts.move(astOffset)
+    if (!ts.moveNext || ts.token.id != ScalaTokenId.Identifier) return DeclarationLocation.NONE
+    val name = ts.token.text.toString
+
+    val syntaxRoot = pr.syntaxRootScope
+    var scope = syntaxRoot.closestScope(th, astOffset)
+    while (scope.isDefined) {
+      scope.get.dfns find (_.getName == name) match {
+        case Some(dfn) => return new DeclarationLocation(pr.getSnapshot.getSource.getFileObject, dfn.idOffset(th), dfn)
+        case None      => scope = scope.get.parent
+      }
+    }
+
+    DeclarationLocation.NONE
+  }
+
   override def findDeclaration(info: ParserResult, lexOffset: Int): DeclarationLocation = {
     val pr = info.asInstanceOf[ScalaParserResult]
     val doc = pr.getSnapshot.getSource.getDocument(false).asInstanceOf[BaseDocument]
@@ -99,7 +121,7 @@ class ScalaDeclarationFinder extends DeclarationFinder {
     val th = pr.getSnapshot.getTokenHierarchy
 
     val closest = root.findItemsAt(th, astOffset) match {
-      case Nil => return DeclarationLocation.NONE
+      case Nil => return findSyntaxDeclaration(pr, th, astOffset)
       case xs  => global.ScalaUtil.askForImportantItem(xs)
     }
 
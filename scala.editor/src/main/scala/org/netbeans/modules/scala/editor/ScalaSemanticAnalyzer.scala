@@ -39,8 +39,15 @@
 
 package org.netbeans.modules.scala.editor
 
+import java.awt.Point
+import java.beans.{ PropertyChangeEvent, PropertyChangeListener }
 import java.util.logging.Logger
-import org.netbeans.api.lexer.TokenHierarchy
+import javax.swing.{ JViewport, SwingUtilities }
+import javax.swing.event.{ ChangeEvent, ChangeListener }
+import javax.swing.text.{ Document, JTextComponent }
+import org.netbeans.api.editor.EditorRegistry
+import org.netbeans.api.language.util.ast.AstItem
+import org.netbeans.api.lexer.{ Token, TokenHierarchy, TokenId }
 import org.netbeans.modules.csl.api.{ ElementKind, ColoringAttributes, OffsetRange, SemanticAnalyzer }
 import org.netbeans.modules.parsing.spi.{ Scheduler, SchedulerEvent }
 import org.netbeans.modules.scala.core.ScalaGlobal
@@ -55,6 +62,8 @@ import scala.reflect.internal.Flags
  * @author Caoyuan Deng
  */
 class ScalaSemanticAnalyzer extends SemanticAnalyzer[ScalaParserResult] {
+  import ScalaSemanticAnalyzer._
+
   private val log = Logger.getLogger(this.getClass.getName)
 
   private var cancelled: Boolean = _
@@ -65,8 +74,7 @@ class ScalaSemanticAnalyzer extends SemanticAnalyzer[ScalaParserResult] {
   }
 
   override def cancel: Unit = synchronized {
-    log.info("Ignore cancel. @todo")
-    //cancelled = true
+    cancelled = true
   }
 
   override def getHighlights: java.util.Map[OffsetRange, java.util.Set[ColoringAttributes]] = {
@@ -81,9 +89,7 @@ class ScalaSemanticAnalyzer extends SemanticAnalyzer[ScalaParserResult] {
 
   @throws(classOf[Exception])
   override def run(pr: ScalaParserResult, event: SchedulerEvent) {
-    cancelled = false
-
-    if (isCancelled) return
+    synchronized { cancelled = false }
 
     val root = pr.rootScope
 
@@ -96,7 +102,7 @@ class ScalaSemanticAnalyzer extends SemanticAnalyzer[ScalaParserResult] {
     val th = pr.getSnapshot.getTokenHierarchy
     val global = pr.global
 
-    semanticHighlights = visitItems(global, th, root) match {
+    semanticHighlights = visitItems(global, pr.srcFile.path, th, root, visibleRange(doc)) match {
       case null => null
       case highlights if !highlights.isEmpty =>
         //            if (result.getTranslatedSource() ne null) {
@@ -116,184 +122,395 @@ class ScalaSemanticAnalyzer extends SemanticAnalyzer[ScalaParserResult] {
     }
   }
 
-  private def visitItems(global: ScalaGlobal, th: TokenHierarchy[_], root: ScalaRootScope): java.util.HashMap[OffsetRange, java.util.Set[ColoringAttributes]] = {
+  /**
+   * @return the offset range of doc that was visible in focused editor when it was last scrolled,
+   *         or OffsetRange.NONE. The range is captured on EDT, @see VisibleRange
+   */
+  private def visibleRange(doc: Document): OffsetRange = VisibleRange.of(doc)
+
+  /**
+   * Items are visited in chunks, those in visible range first, each chunk is a separate request
+   * on compiler thread, so other requests, such as completion, can be served between chunks, and
+   * a cancelled run stops at next chunk.
+   *
+   * @Note CSL applies the highlights only when run returns, so visible items do not show up earlier
+   * than the others; visiting them first only gets their colorings computed and memoized before a
+   * cancellation, so the next run colors them from SymbolColorings.
+   *
+   * @return null if cancelled
+   */
+  private def visitItems(global: ScalaGlobal, srcPath: String, th: TokenHierarchy[_], root: ScalaRootScope, visible: OffsetRange): java.util.HashMap[OffsetRange, java.util.Set[ColoringAttributes]] = {
 
     val highlights = new java.util.HashMap[OffsetRange, java.util.Set[ColoringAttributes]](100)
 
+    val (visibleItems, otherItems) = root.idTokenToItems.toArray partition {
+      case (idToken, _) => visible != OffsetRange.NONE && visible.containsInclusive(idToken.offset(th))
+    }
+    val itemsInOrder = visibleItems ++ otherItems
+
+    def sourcePathOf(sym: global.Symbol) = sym.sourceFile match {
+      case null => ""
+      case x    => x.path
+    }
+
     def isSingletonType(sym: global.Symbol) = try {
       sym.tpe.resultType.isInstanceOf[global.SingletonType]
     } catch {
       case _: Throwable => false
     }
 
-    global.askForResponse { () =>
-      for {
-        (idToken, items) <- root.idTokenToItems
-        item = global.ScalaUtil.importantItem(items)
-        name = item.getName if name != "this" && name != "super"
-      } {
+    val colorings = SymbolColorings(global)
+    colorings.visiting(srcPath, root)
 
-        if (isCancelled) return null
+    def slotOf(item: AstItem): Int = item match {
+      case _: global.ScalaDfn                                   => SymbolColorings.DfnSlot
+      case ref: global.ScalaRef if ref.kind == ElementKind.RULE => SymbolColorings.ImplicitRefSlot
+      case _                                                    => SymbolColorings.RefSlot
+    }
 
-        // token may be xml tokens, @see AstVisit#getTokenId
-        idToken.id match {
-          case ScalaTokenId.Identifier | ScalaTokenId.This | ScalaTokenId.Super =>
-            val hiRange = ScalaLexUtil.getRangeOfToken(th, idToken)
-            val coloringSet = new java.util.HashSet[ColoringAttributes]
-            val sym = item.symbol
+    def computeColorings(item: AstItem): java.util.Set[ColoringAttributes] = {
+      val coloringSet = java.util.EnumSet.noneOf(classOf[ColoringAttributes])
+      val sym = item.symbol.asInstanceOf[global.Symbol]
+
+      item match {
+
+        case dfn: global.ScalaDfn =>
+
+          if (sym.hasFlag(Flags.PACKAGE) || sym.hasPackageFlag) {
+
+            coloringSet.add(ColoringAttributes.PACKAGE_PRIVATE)
 
-            item match {
+          } else if (sym.isModule) {
 
-              case dfn: global.ScalaDfn =>
+            coloringSet.add(ColoringAttributes.CLASS)
+            coloringSet.add(ColoringAttributes.DECLARATION)
+            coloringSet.add(ColoringAttributes.GLOBAL)
 
-                if (sym.hasFlag(Flags.PACKAGE) || sym.hasPackageFlag) {
+          } else if (sym.isClass || sym.isType || sym.isTrait || sym.isTypeParameter) {
 
-                  coloringSet.add(ColoringAttributes.PACKAGE_PRIVATE)
+            coloringSet.add(ColoringAttributes.CLASS)
+            coloringSet.add(ColoringAttributes.DECLARATION)
 
-                } else if (sym.isModule) {
+          } else if (sym.isSetter) {
 
-                  coloringSet.add(ColoringAttributes.CLASS)
-                  coloringSet.add(ColoringAttributes.DECLARATION)
-                  coloringSet.add(ColoringAttributes.GLOBAL)
+            coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
+            coloringSet.add(ColoringAttributes.GLOBAL)
 
-                } else if (sym.isClass || sym.isType || sym.isTrait || sym.isTypeParameter) {
+          } else if (sym.isGetter) {
 
-                  coloringSet.add(ColoringAttributes.CLASS)
-                  coloringSet.add(ColoringAttributes.DECLARATION)
+            coloringSet.add(ColoringAttributes.FIELD)
+            coloringSet.add(ColoringAttributes.GLOBAL)
 
-                } else if (sym.isSetter) {
+          } else if (sym.hasFlag(Flags.LAZY)) {
 
-                  coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
-                  coloringSet.add(ColoringAttributes.GLOBAL)
+            coloringSet.add(ColoringAttributes.FIELD)
+            val owner = sym.owner
+            if (owner != null && (owner.isClass || owner.isTrait || owner.isModule)) {
+              coloringSet.add(ColoringAttributes.GLOBAL)
+            }
 
-                } else if (sym.isGetter) {
+          } else if (sym.isMethod) {
 
-                  coloringSet.add(ColoringAttributes.FIELD)
-                  coloringSet.add(ColoringAttributes.GLOBAL)
+            coloringSet.add(ColoringAttributes.METHOD)
+            coloringSet.add(ColoringAttributes.DECLARATION)
+            if (sym.hasFlag(Flags.DEFERRED)) {
+              coloringSet.add(ColoringAttributes.GLOBAL)
+            }
 
-                } else if (sym.hasFlag(Flags.LAZY)) {
+          } else if (sym.hasFlag(Flags.PARAM)) {
 
-                  coloringSet.add(ColoringAttributes.FIELD)
-                  val owner = sym.owner
-                  if (owner != null && (owner.isClass || owner.isTrait || owner.isModule)) {
-                    coloringSet.add(ColoringAttributes.GLOBAL)
-                  }
+            coloringSet.add(ColoringAttributes.PARAMETER)
 
-                } else if (sym.isMethod) {
+          } else if (sym.hasFlag(Flags.MUTABLE)) {
 
-                  coloringSet.add(ColoringAttributes.METHOD)
-                  coloringSet.add(ColoringAttributes.DECLARATION)
-                  if (sym.hasFlag(Flags.DEFERRED)) {
-                    coloringSet.add(ColoringAttributes.GLOBAL)
-                  }
+            coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
 
-                } else if (sym.hasFlag(Flags.PARAM)) {
+          } else if (sym.isValue && !sym.hasFlag(Flags.PACKAGE)) {
 
-                  coloringSet.add(ColoringAttributes.PARAMETER)
+            coloringSet.add(ColoringAttributes.FIELD)
 
-                } else if (sym.hasFlag(Flags.MUTABLE)) {
+          }
 
-                  coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
+        case ref: global.ScalaRef =>
 
-                } else if (sym.isValue && !sym.hasFlag(Flags.PACKAGE)) {
+          if (sym.hasFlag(Flags.PACKAGE) || sym.hasPackageFlag) {
 
-                  coloringSet.add(ColoringAttributes.FIELD)
+            coloringSet.add(ColoringAttributes.PACKAGE_PRIVATE)
 
-                }
+          } else if (sym.isClass || sym.isType || sym.isTrait || sym.isTypeParameter || sym.isConstructor) {
 
-              case ref: global.ScalaRef =>
+            coloringSet.add(ColoringAttributes.CLASS)
 
-                if (sym.hasFlag(Flags.PACKAGE) || sym.hasPackageFlag) {
+          } else if (sym.isModule && !sym.hasFlag(Flags.PACKAGE) || isSingletonType(sym)) {
 
-                  coloringSet.add(ColoringAttributes.PACKAGE_PRIVATE)
+            coloringSet.add(ColoringAttributes.CLASS)
+            coloringSet.add(ColoringAttributes.GLOBAL)
 
-                } else if (sym.isClass || sym.isType || sym.isTrait || sym.isTypeParameter || sym.isConstructor) {
+          } else if (sym.hasFlag(Flags.LAZY)) { // why it's also setter/getter?
 
-                  coloringSet.add(ColoringAttributes.CLASS)
+            coloringSet.add(ColoringAttributes.FIELD)
+            val owner = sym.owner
+            if (owner != null && (owner.isClass || owner.isTrait || owner.isModule)) {
+              coloringSet.add(ColoringAttributes.GLOBAL)
+            }
 
-                } else if (sym.isModule && !sym.hasFlag(Flags.PACKAGE) || isSingletonType(sym)) {
+          } else if (sym.isSetter) {
 
-                  coloringSet.add(ColoringAttributes.CLASS)
-                  coloringSet.add(ColoringAttributes.GLOBAL)
+            coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
+            coloringSet.add(ColoringAttributes.GLOBAL)
 
-                } else if (sym.hasFlag(Flags.LAZY)) { // why it's also setter/getter?
+          } else if (sym.isGetter) {
 
-                  coloringSet.add(ColoringAttributes.FIELD)
-                  val owner = sym.owner
-                  if (owner != null && (owner.isClass || owner.isTrait || owner.isModule)) {
-                    coloringSet.add(ColoringAttributes.GLOBAL)
-                  }
+            val name = sym.nameString
+            val isVariable = try {
+              val owntpe = sym.owner.tpe
+              owntpe.members exists { x => x.isVariable && x.nameString == name }
+            } catch {
+              case _: Throwable => false
+            }
 
-                } else if (sym.isSetter) {
+            if (isVariable) {
+              coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
+            } else {
+              coloringSet.add(ColoringAttributes.FIELD)
+            }
+            coloringSet.add(ColoringAttributes.GLOBAL)
 
-                  coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
-                  coloringSet.add(ColoringAttributes.GLOBAL)
+          } else if (sym.hasFlag(Flags.PARAM) || sym.hasFlag(Flags.PARAMACCESSOR)) {
 
-                } else if (sym.isGetter) {
+            coloringSet.add(ColoringAttributes.PARAMETER)
 
-                  val name = sym.nameString
-                  val isVariable = try {
-                    val owntpe = sym.owner.tpe
-                    owntpe.members exists { x => x.isVariable && x.nameString == name }
-                  } catch {
-                    case _: Throwable => false
-                  }
+          } else if (sym.isMethod) {
 
-                  if (isVariable) {
-                    coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
-                  } else {
-                    coloringSet.add(ColoringAttributes.FIELD)
-                  }
-                  coloringSet.add(ColoringAttributes.GLOBAL)
+            sym.nameString match {
+              case "apply" | "unapply" =>
+                coloringSet.add(ColoringAttributes.CLASS)
 
-                } else if (sym.hasFlag(Flags.PARAM) || sym.hasFlag(Flags.PARAMACCESSOR)) {
+              case _ =>
+                coloringSet.add(ColoringAttributes.CONSTRUCTOR) // method ref
+            }
 
-                  coloringSet.add(ColoringAttributes.PARAMETER)
+            if (ref.kind == ElementKind.RULE) { // implicit call, @see slotOf
+              coloringSet.add(ColoringAttributes.CUSTOM1)
+            }
 
-                } else if (sym.isMethod) {
+          } /* else if (sym.hasFlag(Flags.IMPLICIT)) {
 
-                  sym.nameString match {
-                    case "apply" | "unapply" =>
-                      coloringSet.add(ColoringAttributes.CLASS)
+            coloringSet.add(ColoringAttributes.CUSTOM1)
 
-                    case _ =>
-                      coloringSet.add(ColoringAttributes.CONSTRUCTOR) // method ref
-                  }
+          } */ else if (sym.hasFlag(Flags.MUTABLE)) {
 
-                  if (ref.getKind == ElementKind.RULE) { // implicit call
-                    coloringSet.add(ColoringAttributes.CUSTOM1)
-                  }
+            coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
 
-                } /* else if (sym.hasFlag(Flags.IMPLICIT)) {
+          } else if (sym.isValue && !sym.hasFlag(Flags.PACKAGE)) {
 
-                  coloringSet.add(ColoringAttributes.CUSTOM1)
+            coloringSet.add(ColoringAttributes.FIELD)
 
-                } */ else if (sym.hasFlag(Flags.MUTABLE)) {
+          }
+      }
 
-                  coloringSet.add(ColoringAttributes.LOCAL_VARIABLE)
+      if (sym.isDeprecated) coloringSet.add(ColoringAttributes.DEPRECATED)
+      if (sym.hasFlag(Flags.LAZY)) coloringSet.add(ColoringAttributes.CUSTOM2)
+      //if (sym.hasFlag(Flags.BYNAMEPARAM)) coloringSet.add(ColoringAttributes.CUSTOM1)
 
-                } else if (sym.isValue && !sym.hasFlag(Flags.PACKAGE)) {
+      coloringSet
+    }
 
-                  coloringSet.add(ColoringAttributes.FIELD)
+    def visitChunk(chunk: Array[(Token[TokenId], List[AstItem])]): Unit = {
+      for {
+        (idToken, items) <- chunk
+        item = global.ScalaUtil.importantItem(items)
+        name = item.getName if name != "this" && name != "super"
+      } {
 
-                }
-            }
+        if (isCancelled) return
 
-            if (sym.isDeprecated) coloringSet.add(ColoringAttributes.DEPRECATED)
-            if (sym.hasFlag(Flags.LAZY)) coloringSet.add(ColoringAttributes.CUSTOM2)
-            //if (sym.hasFlag(Flags.BYNAMEPARAM)) coloringSet.add(ColoringAttributes.CUSTOM1)
+        // token may be xml tokens, @see AstVisit#getTokenId
+        idToken.id match {
+          case ScalaTokenId.Identifier | ScalaTokenId.This | ScalaTokenId.Super =>
+            val hiRange = ScalaLexUtil.getRangeOfToken(th, idToken)
+            val sym = item.symbol.asInstanceOf[global.Symbol]
+            val coloringSet = colorings.coloringsOf(sym, sourcePathOf(sym), slotOf(item)) {
+              computeColorings(item)
+            }
 
             if (!coloringSet.isEmpty) highlights.put(hiRange, coloringSet)
 
           case _ =>
         }
       }
+    }
+
+    for (chunk <- itemsInOrder.grouped(ChunkSize)) {
+      if (isCancelled) return null
+
+      global.askForResponse { () =>
+        visitChunk(chunk)
+      } get match {
+        case Left(x)   =>
+        case Right(ex) => global.processGlobalException(ex)
+      }
+    }
+
+    if (isCancelled) null else highlights
+  }
+}
+
+object ScalaSemanticAnalyzer {
+  /** number of id tokens to be colored per request on compiler thread */
+  private val ChunkSize = 256
+
+  /**
+   * Visible offset range of the last focused editor. Swing views may only be asked on EDT, so the
+   * range is computed there whenever the editor gets focus or its viewport changes (scrolled,
+   * resized, or by caret moves), and the parsing thread only reads the last snapshot.
+   */
+  private object VisibleRange {
+    /** (document, range) is published as one reference */
+    @volatile private var snapshot: (Document, OffsetRange) = (null, OffsetRange.NONE)
+    private var viewport: JViewport = _
+
+    private lazy val installed: Unit = SwingUtilities.invokeLater(new Runnable {
+      def run {
+        EditorRegistry.addPropertyChangeListener(new PropertyChangeListener {
+          def propertyChange(evt: PropertyChangeEvent) {
+            evt.getPropertyName match {
+              case EditorRegistry.FOCUS_GAINED_PROPERTY | EditorRegistry.LAST_FOCUSED_REMOVED_PROPERTY =>
+                track(EditorRegistry.lastFocusedComponent)
+              case _ =>
+            }
+          }
+        })
+        track(EditorRegistry.lastFocusedComponent)
+      }
+    })
+
+    private val viewportListener = new ChangeListener {
+      def stateChanged(evt: ChangeEvent) {
+        EditorRegistry.lastFocusedComponent match {
+          case null =>
+          case comp => capture(comp)
+        }
+      }
+    }
+
+    def of(doc: Document): OffsetRange = {
+      installed
+      val (visibleDoc, range) = snapshot
+      if (visibleDoc eq doc) range else OffsetRange.NONE
+    }
+
+    /** called on EDT */
+    private def track(comp: JTextComponent) {
+      if (viewport ne null) viewport.removeChangeListener(viewportListener)
+      viewport = null
+      snapshot = (null, OffsetRange.NONE)
+      if (comp ne null) {
+        SwingUtilities.getAncestorOfClass(classOf[JViewport], comp) match {
+          case x: JViewport =>
+            viewport = x
+            x.addChangeListener(viewportListener)
+          case _ =>
+        }
+        capture(comp)
+      }
+    }
+
+    /** called on EDT, viewToModel is done under document read lock as the views require */
+    private def capture(comp: JTextComponent) {
+      val doc = comp.getDocument
+      val rect = comp.getVisibleRect
+      var range = OffsetRange.NONE
+      doc.render(new Runnable {
+        def run {
+          try {
+            val start = comp.viewToModel(new Point(rect.x, rect.y))
+            val end = comp.viewToModel(new Point(rect.x + rect.width, rect.y + rect.height))
+            if (start >= 0 && end >= start) range = new OffsetRange(start, end)
+          } catch {
+            case _: Exception =>
+          }
+        }
+      })
+      snapshot = (doc, range)
+    }
+  }
 
-    } get match {
-      case Left(x)   =>
-      case Right(ex) => global.processGlobalException(ex)
+  /**
+   * Coloring attributes computed per symbol of a global, they are reused by highlighting passes of
+   * all parser results of this global until the source that defines the symbol is typechecked again.
+   * Symbols are grouped by the path of their source file, library symbols are under "".
+   */
+  private class SymbolColorings {
+    private val sourceToRoot = new java.util.HashMap[String, java.lang.ref.WeakReference[ScalaRootScope]]
+    private val sourceToSymbols = new java.util.HashMap[String, java.util.WeakHashMap[AnyRef, Array[java.util.Set[ColoringAttributes]]]]
+
+    /**
+     * A root that was not visited before means the source at srcPath has been typechecked again,
+     * its symbols are new ones then.
+     */
+    def visiting(srcPath: String, root: ScalaRootScope): Unit = synchronized {
+      sourceToRoot.get(srcPath) match {
+        case null                 =>
+        case x if x.get eq root =>
+        case _                    => sourceToSymbols.remove(srcPath)
+      }
+      sourceToRoot.put(srcPath, new java.lang.ref.WeakReference(root))
     }
 
-    highlights
+    def coloringsOf(sym: AnyRef, srcPath: String, slot: Int)(compute: => java.util.Set[ColoringAttributes]): java.util.Set[ColoringAttributes] = synchronized {
+      val symbolToColorings = sourceToSymbols.get(srcPath) match {
+        case null =>
+          val x = new java.util.WeakHashMap[AnyRef, Array[java.util.Set[ColoringAttributes]]]
+          sourceToSymbols.put(srcPath, x)
+          x
+        case x => x
+      }
+      val slots = symbolToColorings.get(sym) match {
+        case null =>
+          val x = new Array[java.util.Set[ColoringAttributes]](SymbolColorings.NumSlots)
+          symbolToColorings.put(sym, x)
+          x
+        case x => x
+      }
+      slots(slot) match {
+        case null =>
+          val x = SymbolColorings.intern(compute)
+          slots(slot) = x
+          x
+        case x => x
+      }
+    }
+  }
+
+  private object SymbolColorings {
+    val DfnSlot = 0
+    val RefSlot = 1
+    val ImplicitRefSlot = 2
+    val NumSlots = 3
+
+    private val globalToColorings = new java.util.WeakHashMap[ScalaGlobal, SymbolColorings]
+    private val interned = new java.util.HashMap[java.util.Set[ColoringAttributes], java.util.Set[ColoringAttributes]]
+
+    def apply(global: ScalaGlobal): SymbolColorings = globalToColorings synchronized {
+      globalToColorings.get(global) match {
+        case null =>
+          val x = new SymbolColorings
+          globalToColorings.put(global, x)
+          x
+        case x => x
+      }
+    }
+
+    /** @return an unmodifiable set that is shared by all equal sets */
+    def intern(set: java.util.Set[ColoringAttributes]): java.util.Set[ColoringAttributes] = interned synchronized {
+      interned.get(set) match {
+        case null =>
+          val x = java.util.Collections.unmodifiableSet(set)
+          interned.put(set, x)
+          x
+        case x => x
+      }
+    }
   }
 }
@@ -72,7 +72,12 @@ class ScalaStructureAnalyzer extends StructureScanner {
   override def scan(result: ParserResult): java.util.List[StructureItem] = {
     result match {
       case pResult: ScalaParserResult =>
-        val rootScope = pResult.rootScope
+        // * navigator needs dfns only, do not wait for typechecking. The dfns of syntax root have no
+        // * symbols, so scan again once the semantic root is there
+        val rootScope = pResult.semanticRootScope getOrElse {
+          pResult.rerunTasksWhenSemanticed()
+          pResult.syntaxRootScope
+        }
 
         val items = new java.util.ArrayList[StructureItem]
         scanTopForms(rootScope, items, pResult)
@@ -0,0 +1,311 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 1997-2007 Sun Microsystems, Inc. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common
+ * Development and Distribution License("CDDL") (collectively, the
+ * "License"). You may not use this file except in compliance with the
+ * License. You can obtain a copy of the License at
+ * http://www.netbeans.org/cddl-gplv2.html
+ * or nbbuild/licenses/CDDL-GPL-2-CP. See the License for the
+ * specific language governing permissions and limitations under the
+ * License.  When distributing the software, include this License Header
+ * Notice in each file and include the License file at
+ * nbbuild/licenses/CDDL-GPL-2-CP.  Sun designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Sun in the GPL Version 2 section of the License file that
+ * accompanied this code. If applicable, add the following below the
+ * License Header, with the fields enclosed by brackets [] replaced by
+ * your own identifying information:
+ * "Portions Copyrighted [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ *
+ * The Original Software is NetBeans. The Initial Developer of the Original
+ * Software is Sun Microsystems, Inc. Portions Copyright 1997-2006 Sun
+ * Microsystems, Inc. All Rights Reserved.
+ *
+ * If you wish your version of this file to be governed by only the CDDL
+ * or only the GPL Version 2, indicate your decision by adding
+ * "[Contributor] elects to include this software in this distribution
+ * under the [CDDL or GPL Version 2] license." If you do not indicate a
+ * single choice of license, a recipient has the option to distribute
+ * your version of this file under either the CDDL, the GPL Version 2 or
+ * to extend the choice of license to its licensees as provided above.
+ * However, if you add GPL Version 2 code and therefore, elected the GPL
+ * Version 2 license, then the option applies only if the new code is
+ * made subject to such option by the copyright holder.
+ */
+package org.netbeans.modules.scala.editor
+
+import java.util.logging.Logger
+import javax.lang.model.element.TypeElement
+import org.netbeans.api.java.classpath.ClassPath
+import org.netbeans.api.java.source.{
+  ClassIndex,
+  ClassIndexListener,
+  ClasspathInfo,
+  ElementHandle,
+  RootsEvent,
+  TypesEvent
+}
+import org.netbeans.api.java.source.ClassIndex.{ NameKind, SearchScope }
+import org.openide.filesystems.FileObject
+import org.openide.util.RequestProcessor
+import scala.collection.mutable.ArrayBuffer
+
+import org.netbeans.modules.scala.core.JavaSourceUtil
+
+/**
+ * Simple names of all declared types of a classpath, sorted, so type completion could match
+ * them by prefix, camel humps or subsequence without querying ClassIndex on each invocation.
+ *
+ * The names are got from ClassIndex once in background, then types added/removed are merged
+ * on next query, and a change of classpath roots causes a new build.
+ *
+ * @author Caoyuan Deng
+ */
+final class TypeNameIndex private (bootCp: ClassPath, compCp: ClassPath, srcCp: ClassPath) {
+  import TypeNameIndex._
+
+  private val classIndex = ClasspathInfo.create(bootCp, compCp, srcCp).getClassIndex
+
+  @volatile private var _table: Table = _
+  private var isBuilding = false
+  /** incremented on roots changed, a build started before is outdated then */
+  private var generation = 0
+  /** types added (true) or removed (false) since table was built, the latest event wins */
+  private val pending = new java.util.LinkedHashMap[ElementHandle[TypeElement], java.lang.Boolean]
+
+  private val listener = new ClassIndexListener {
+    def typesAdded(event: TypesEvent) = changed(event, true)
+    def typesRemoved(event: TypesEvent) = changed(event, false)
+    def typesChanged(event: TypesEvent) {} // names are not changed
+    def rootsAdded(event: RootsEvent) = rebuild()
+    def rootsRemoved(event: RootsEvent) = rebuild()
+  }
+  classIndex.addClassIndexListener(listener)
+
+  private[editor] def isOf(bootCp: ClassPath, compCp: ClassPath) = (this.bootCp eq bootCp) && (this.compCp eq compCp)
+
+  private def changed(event: TypesEvent, isAdded: Boolean): Unit = synchronized {
+    val itr = event.getTypes.iterator
+    while (itr.hasNext) {
+      pending.put(itr.next, isAdded)
+    }
+  }
+
+  private def rebuild(): Unit = synchronized {
+    _table = null
+    generation += 1
+    pending.clear
+  }
+
+  /**
+   * @return None if the table is not built yet, it's being built in background then
+   */
+  private def table: Option[Table] = synchronized {
+    _table match {
+      case null =>
+        if (!isBuilding) {
+          isBuilding = true
+          val gen = generation
+          RP.post(new Runnable { def run = build(gen) })
+        }
+        None
+      case x =>
+        if (!pending.isEmpty) {
+          _table = x.updated(pending)
+          pending.clear
+        }
+        Some(_table)
+    }
+  }
+
+  private def build(gen: Int) {
+    val start = System.currentTimeMillis
+    val handles = try {
+      classIndex.getDeclaredTypes("", NameKind.PREFIX, java.util.EnumSet.allOf(classOf[SearchScope]))
+    } catch {
+      case ex: Throwable => log.warning("Failed to get declared types: " + ex); java.util.Collections.emptySet[ElementHandle[TypeElement]]
+    }
+    val built = Table(handles)
+
+    synchronized {
+      // * types changed during building are there already, but the events are kept, updating is idempotent
+      if (gen == generation) _table = built
+      isBuilding = false
+    }
+    log.fine("Built type name index of " + built.size + " types in " + (System.currentTimeMillis - start) + "ms")
+  }
+
+  /**
+   * Types whose simple name starts with prefix, then those whose name matches prefix as camel
+   * humps, e.g. "HM" or "HaMa" for "HashMap", then, if there are still few, those that contain
+   * chars of prefix in order, e.g. "hmap" for "HashMap".
+   *
+   * @return None if the index is not ready yet
+   */
+  def find(prefix: String, caseSensitive: Boolean): Option[Seq[ElementHandle[TypeElement]]] = {
+    table map (_.find(prefix, caseSensitive))
+  }
+}
+
+object TypeNameIndex {
+  private val log = Logger.getLogger(classOf[TypeNameIndex].getName)
+  private val RP = new RequestProcessor(classOf[TypeNameIndex].getName)
+
+  private val MinSubsequencePrefix = 2
+  private val MaxSubsequenceResults = 50
+
+  /** keyed by source classpath, values are soft so an index could be dropped under memory pressure */
+  private val srcCpToIndex = new java.util.WeakHashMap[ClassPath, java.lang.ref.SoftReference[TypeNameIndex]]
+
+  def get(fo: FileObject): Option[TypeNameIndex] = {
+    val bootCp = ClassPath.getClassPath(fo, ClassPath.BOOT)
+    val compCp = ClassPath.getClassPath(fo, ClassPath.COMPILE)
+    val srcCp = ClassPath.getClassPath(fo, ClassPath.SOURCE)
+    if (bootCp == null || compCp == null || srcCp == null) return None
+
+    srcCpToIndex synchronized {
+      srcCpToIndex.get(srcCp) match {
+        case null =>
+        case ref => ref.get match {
+          case x: TypeNameIndex if x.isOf(bootCp, compCp) => return Some(x)
+          case _                                          =>
+        }
+      }
+      val x = new TypeNameIndex(bootCp, compCp, srcCp)
+      srcCpToIndex.put(srcCp, new java.lang.ref.SoftReference(x))
+      Some(x)
+    }
+  }
+
+  /** "HashMap" -> "HM", the first char counts as a hump whatever its case */
+  private def humpsOf(name: String): String = {
+    val sb = new StringBuilder
+    var i = 0
+    while (i < name.length) {
+      val c = name.charAt(i)
+      if (i == 0 || Character.isUpperCase(c)) sb.append(Character.toUpperCase(c))
+      i += 1
+    }
+    sb.toString
+  }
+
+  private def isSubsequence(lowerPrefix: String, lowerName: String): Boolean = {
+    var i = 0
+    var j = 0
+    while (i < lowerPrefix.length && j < lowerName.length) {
+      if (lowerPrefix.charAt(i) == lowerName.charAt(j)) i += 1
+      j += 1
+    }
+    i == lowerPrefix.length
+  }
+
+  private def simpleNameOf(handle: ElementHandle[TypeElement]): String = {
+    val qname = handle.getQualifiedName
+    qname.lastIndexOf('.') match {
+      case -1 => qname
+      case i  => qname.substring(i + 1, qname.length)
+    }
+  }
+
+  /**
+   * Names sorted by lower case, and the indices of them sorted by humps
+   */
+  private[editor] final class Table(val names: Array[String], val handles: Array[ElementHandle[TypeElement]]) {
+    val size = names.length
+    val lowerNames = names map (_.toLowerCase)
+    val (humps, humpToIndex) = {
+      val xs = Array.tabulate(size)(i => (humpsOf(names(i)), i)) sortBy (_._1)
+      (xs map (_._1), xs map (_._2))
+    }
+
+    def lowerBound(lowerPrefix: String) = bound(lowerNames, lowerPrefix)
+    def humpLowerBound(humpsPrefix: String) = bound(humps, humpsPrefix)
+
+    /** @return the first index whose key is not less than x */
+    private def bound(keys: Array[String], x: String): Int = {
+      var lo = 0
+      var hi = keys.length
+      while (lo < hi) {
+        val mid = (lo + hi) >>> 1
+        if (keys(mid).compareTo(x) < 0) lo = mid + 1 else hi = mid
+      }
+      lo
+    }
+
+    /** @see TypeNameIndex#find */
+    def find(prefix: String, caseSensitive: Boolean): Seq[ElementHandle[TypeElement]] = {
+      val lowerPrefix = prefix.toLowerCase
+      val matched = new java.util.BitSet(size)
+      val result = new ArrayBuffer[ElementHandle[TypeElement]]
+
+      def add(i: Int) {
+        if (!matched.get(i)) {
+          matched.set(i)
+          result += handles(i)
+        }
+      }
+
+      var i = lowerBound(lowerPrefix)
+      while (i < size && lowerNames(i).startsWith(lowerPrefix)) {
+        if (!caseSensitive || names(i).startsWith(prefix)) add(i)
+        i += 1
+      }
+
+      if (Character.isUpperCase(prefix.charAt(0))) {
+        val prefixHumps = humpsOf(prefix)
+        var j = humpLowerBound(prefixHumps)
+        while (j < size && humps(j).startsWith(prefixHumps)) {
+          val idx = humpToIndex(j)
+          if (JavaSourceUtil.startsWithCamelCase(names(idx), prefix)) add(idx)
+          j += 1
+        }
+      }
+
+      if (result.size < MaxSubsequenceResults && prefix.length >= MinSubsequencePrefix) {
+        var k = 0
+        var count = 0
+        while (k < size && count < MaxSubsequenceResults) {
+          if (!matched.get(k) && isSubsequence(lowerPrefix, lowerNames(k))) {
+            add(k)
+            count += 1
+          }
+          k += 1
+        }
+      }
+
+      result
+    }
+
+    /** @param changes type to true if it's added, to false if it's removed */
+    def updated(changes: java.util.Map[ElementHandle[TypeElement], java.lang.Boolean]): Table = {
+      val xs = new java.util.ArrayList[ElementHandle[TypeElement]](size + changes.size)
+      handles foreach { x => if (!changes.containsKey(x)) xs.add(x) }
+      val itr = changes.entrySet.iterator
+      while (itr.hasNext) {
+        val change = itr.next
+        if (change.getValue.booleanValue) xs.add(change.getKey)
+      }
+      Table(xs)
+    }
+  }
+
+  private[editor] object Table {
+    def apply(handles: java.util.Collection[ElementHandle[TypeElement]]): Table = {
+      val entries = new ArrayBuffer[(String, ElementHandle[TypeElement])](handles.size)
+      val itr = handles.iterator
+      while (itr.hasNext) {
+        val handle = itr.next
+        val sname = simpleNameOf(handle)
+        if (sname.length > 0) entries += ((sname, handle))
+      }
+      val sorted = entries.toArray sortBy (_._1.toLowerCase)
+      new Table(sorted map (_._1), sorted map (_._2))
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package org.netbeans.modules.scala.editor
+
+import org.junit.Assert
+import org.junit.Test
+import org.netbeans.modules.scala.core.ScalaGlobal
+import scala.tools.nsc.Settings
+import scala.tools.nsc.reporters.StoreReporter
+import ScalaCodeCompleter.{ CachedMember, CompletionSession, MembersCompletion, ScopeCompletion }
+
+class CompletionSessionTest {
+
+  private val text = "object A { List(1).ma }"
+  private val identStart = text.indexOf("ma")
+  private val identEnd = identStart + 2
+
+  /** isValidFor only compares globals by reference, no global is needed here */
+  private def session(fetch: Long => Option[Array[CachedMember]] = _ => None) = {
+    new CompletionSession(null, "A.scala", MembersCompletion, text, identStart, identEnd, fetch)
+  }
+
+  @Test
+  def testValidWhileTypingIdentifier(): Unit = {
+    val typed = "object A { List(1).map }"
+    Assert.assertTrue(session().isValidFor(null, "A.scala", MembersCompletion, typed, identStart, identEnd + 1))
+
+    val deleted = "object A { List(1).m }"
+    Assert.assertTrue(session().isValidFor(null, "A.scala", MembersCompletion, deleted, identStart, identEnd - 1))
+  }
+
+  @Test
+  def testInvalidWhenTextOutsideIdentifierChanged(): Unit = {
+    val before = "object B { List(1).map }"
+    Assert.assertFalse(session().isValidFor(null, "A.scala", MembersCompletion, before, identStart, identEnd + 1))
+
+    val after = "object A { List(1).map  }"
+    Assert.assertFalse(session().isValidFor(null, "A.scala", MembersCompletion, after, identStart, identEnd + 1))
+  }
+
+  @Test
+  def testInvalidForOtherPlaceKindOrSource(): Unit = {
+    Assert.assertFalse(session().isValidFor(null, "A.scala", MembersCompletion, text, identStart + 1, identEnd))
+    Assert.assertFalse(session().isValidFor(null, "A.scala", ScopeCompletion, text, identStart, identEnd))
+    Assert.assertFalse(session().isValidFor(null, "B.scala", MembersCompletion, text, identStart, identEnd))
+  }
+
+  @Test
+  def testMembersAreFetchedOnce(): Unit = {
+    var fetched = 0
+    val members = Array(new CachedMember("map", null, false, false, 0, false))
+    val x = session { timeout => fetched += 1; Some(members) }
+
+    Assert.assertSame(members, x.members(100).get)
+    Assert.assertSame(members, x.members(100).get)
+    Assert.assertEquals(1, fetched)
+  }
+
+  @Test
+  def testMembersAreFetchedAgainAfterTimeout(): Unit = {
+    var fetched = 0
+    val x = session { timeout => fetched += 1; if (fetched == 1) None else Some(Array[CachedMember]()) }
+
+    Assert.assertEquals(None, x.members(100))
+    Assert.assertTrue(x.members(100).isDefined)
+    Assert.assertEquals(2, fetched)
+  }
+
+  @Test
+  def testShutdownGlobalIsNotReusedNorRetained(): Unit = {
+    val global = new ScalaGlobal(new Settings, new StoreReporter, "", true)
+    val x = CompletionSession.start(new CompletionSession(global, "A.scala", MembersCompletion, text, identStart, identEnd, _ => None))
+    Assert.assertEquals(Some(x), CompletionSession.lookup(global, "A.scala", MembersCompletion, text, identStart, identEnd))
+
+    global.askShutdown()
+
+    Assert.assertFalse(CompletionSession.isCurrent(x))
+    Assert.assertEquals(None, CompletionSession.lookup(global, "A.scala", MembersCompletion, text, identStart, identEnd))
+  }
+
+  @Test
+  def testOtherGlobalShutdownKeepsSession(): Unit = {
+    val other = new ScalaGlobal(new Settings, new StoreReporter, "", true)
+    val x = CompletionSession.start(session())
+    other.askShutdown()
+
+    Assert.assertTrue(CompletionSession.isCurrent(x))
+    CompletionSession.drop(x)
+  }
+}
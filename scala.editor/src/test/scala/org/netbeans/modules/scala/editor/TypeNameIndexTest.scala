@@ -0,0 +1,51 @@
+package org.netbeans.modules.scala.editor
+
+import javax.lang.model.element.{ ElementKind, TypeElement }
+import org.junit.Assert
+import org.junit.Test
+import org.netbeans.api.java.source.ElementHandle
+
+class TypeNameIndexTest {
+
+  private def handleOf(qname: String) = ElementHandle.createTypeElementHandle(ElementKind.CLASS, qname)
+
+  private def tableOf(qnames: String*) = {
+    val handles = new java.util.ArrayList[ElementHandle[TypeElement]]
+    qnames foreach { x => handles.add(handleOf(x)) }
+    TypeNameIndex.Table(handles)
+  }
+
+  private val table = tableOf("java.util.Map", "java.util.HashSet", "java.util.LinkedHashMap", "java.util.HashMap")
+
+  private def find(table: TypeNameIndex.Table, prefix: String, caseSensitive: Boolean) = {
+    table.find(prefix, caseSensitive).map(_.getQualifiedName).toList
+  }
+
+  @Test
+  def testPrefix(): Unit = {
+    Assert.assertEquals(List("java.util.HashMap", "java.util.HashSet"), find(table, "H", true))
+    Assert.assertEquals(Nil, find(table, "h", true))
+    Assert.assertEquals(List("java.util.HashMap", "java.util.HashSet"), find(table, "h", false))
+  }
+
+  @Test
+  def testCamelHumpsThenSubsequence(): Unit = {
+    Assert.assertEquals(List("java.util.HashMap", "java.util.LinkedHashMap"), find(table, "HM", true))
+    Assert.assertEquals(List("java.util.LinkedHashMap"), find(table, "LHM", true))
+  }
+
+  @Test
+  def testSubsequenceNeedsTwoChars(): Unit = {
+    Assert.assertEquals(Nil, find(table, "p", false))
+    Assert.assertEquals(List("java.util.HashMap", "java.util.LinkedHashMap", "java.util.Map"), find(table, "ap", false))
+  }
+
+  @Test
+  def testUpdated(): Unit = {
+    val changes = new java.util.LinkedHashMap[ElementHandle[TypeElement], java.lang.Boolean]
+    changes.put(handleOf("java.util.HashSet"), false)
+    changes.put(handleOf("java.util.Hashtable"), true)
+
+    Assert.assertEquals(List("java.util.HashMap", "java.util.Hashtable", "java.util.LinkedHashMap"), find(table.updated(changes), "Hash", true))
+  }
+}
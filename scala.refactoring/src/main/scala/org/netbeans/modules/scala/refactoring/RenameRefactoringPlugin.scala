@@ -325,7 +325,7 @@ class RenameRefactoringPlugin(rename: RenameRefactoring) extends ScalaRefactorin
       if (notLocal) {
         val srcCp = cpInfo.getClassPath(ClasspathInfo.PathKind.SOURCE)
         if (srcCp ne null) {
-          set ++= RetoucheUtils.getScalaFilesInSrcCp(srcCp, true)
+          set ++= RetoucheUtils.getScalaFilesWithIdentifier(srcCp, targetName, true)
         }
       }
     }
@@ -70,6 +70,7 @@ import org.netbeans.api.project.ProjectUtils;
 import org.netbeans.api.project.Sources;
 import org.netbeans.api.project.ui.OpenProjects;
 import org.netbeans.modules.csl.api.ElementKind
+import org.netbeans.modules.scala.core.ScalaIndex
 import org.netbeans.modules.scala.core.ScalaMimeResolver
 import org.netbeans.modules.scala.core.ScalaSourceUtil
 import org.netbeans.modules.scala.core.ProjectResources
@@ -478,6 +479,43 @@ object RetoucheUtils {
     files.toSet
   }
 
+  /**
+   * Same as getScalaFilesInSrcCp, but only those files that contain an identifier
+   * token of `name`, which is looked up in ScalaIndex instead of typechecking all
+   * files. Modified but not saved files are always included since the index is
+   * updated on save only.
+   *
+   * Falls back to getScalaFilesInSrcCp when the index is not available.
+   */
+  def getScalaFilesWithIdentifier(srcCp: ClassPath, name: String, excludeReadOnlySourceRoots: Boolean = false): Set[FileObject] = {
+    val sourceRoots = srcCp.getRoots filter { root =>
+      if (excludeReadOnlySourceRoots && !root.canWrite) {
+        false // skip read only source roots
+      } else root.getName match {
+        case "vendor" | "script" => false // NOI18N
+        case _                   => true
+      }
+    }
+
+    ScalaIndex(sourceRoots) match {
+      case Some(index) =>
+        val files = new HashSet[FileObject]
+        files ++= index.findFilesWithIdentifier(name) filter isScalaFile
+
+        val modifieds = DataObject.getRegistry.getModifiedSet.iterator
+        while (modifieds.hasNext) {
+          val fo = modifieds.next.getPrimaryFile
+          if (isScalaFile(fo) && (sourceRoots exists { FileUtil.isParentOf(_, fo) })) {
+            files.add(fo)
+          }
+        }
+
+        Log.fine("Files with identifier '" + name + "': " + files.size)
+        files.toSet
+      case None => getScalaFilesInSrcCp(srcCp, excludeReadOnlySourceRoots)
+    }
+  }
+
   def getScalaFilesInProject(fileInProject: FileObject, excludeReadOnlySourceRoots: Boolean = false): Set[FileObject] = {
     val files = new HashSet[FileObject] // 100
     val sourceRoots = QuerySupport.findRoots(fileInProject,
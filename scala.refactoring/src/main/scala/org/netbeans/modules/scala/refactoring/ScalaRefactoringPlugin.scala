@@ -53,13 +53,15 @@ import org.netbeans.modules.parsing.api.ParserManager
 import org.netbeans.modules.parsing.api.ResultIterator
 import org.netbeans.modules.parsing.api.Source
 
+import org.netbeans.api.java.classpath.ClassPath
 import org.netbeans.modules.scala.core.ast.ScalaItems
-import org.netbeans.modules.scala.core.{ ScalaMimeResolver, ScalaParserResult }
+import org.netbeans.modules.scala.core.{ ScalaGlobal, ScalaMimeResolver, ScalaParserResult }
 
 import org.netbeans.modules.refactoring.api.AbstractRefactoring
 import org.netbeans.modules.refactoring.api.Problem
 import org.netbeans.modules.refactoring.spi.{ RefactoringPlugin, ProgressProviderAdapter }
 import org.openide.filesystems.FileObject;
+import org.openide.util.RequestProcessor
 import scala.collection.mutable.ArrayBuffer
 import scala.collection.mutable.HashMap
 import scala.collection.mutable.HashSet
@@ -115,9 +117,15 @@ abstract class ScalaRefactoringPlugin extends ProgressProviderAdapter with Refac
   }
 
   protected def processFiles(fos: Set[FileObject], task: TransformTask): Seq[ModificationResult] = {
+    val scalaFos = fos filter RetoucheUtils.isScalaFile
+    val nWorkers = ScalaRefactoringPlugin.numOfWorkers(scalaFos.size)
+    if (nWorkers > 1) {
+      return processFilesInParallel(scalaFos, task, nWorkers)
+    }
+
     val sources = new java.util.HashSet[Source](2 * fos.size)
 
-    for (fo <- fos if RetoucheUtils.isScalaFile(fo)) sources.add(Source.create(fo))
+    for (fo <- scalaFos) sources.add(Source.create(fo))
 
     try {
       ParserManager.parse(sources, task)
@@ -125,6 +133,34 @@ abstract class ScalaRefactoringPlugin extends ProgressProviderAdapter with Refac
     } catch { case ex: ParseException => throw new RuntimeException(ex) }
   }
 
+  /**
+   * Typecheck files on nWorkers detached globals concurrently instead of the single
+   * compiler thread of project's global. Each worker keeps one global per source
+   * classpath (a global can only serve one classpath) for all files it takes, files
+   * are queued grouped by their source classpath, so a worker usually needs only one.
+   */
+  private def processFilesInParallel(fos: Set[FileObject], task: TransformTask, nWorkers: Int): Seq[ModificationResult] = {
+    val queue = new java.util.concurrent.ConcurrentLinkedQueue[(ClassPath, FileObject)]
+    for {
+      (srcCp, xs) <- fos groupBy { fo => ClassPath.getClassPath(fo, ClassPath.SOURCE) }
+      fo <- xs.toList.sortBy(_.getPath)
+    } queue.add((srcCp, fo))
+
+    val rp = new RequestProcessor(classOf[ScalaRefactoringPlugin].getName, nWorkers)
+    val rpTasks = (1 to nWorkers) map { _ =>
+      rp.post(new Runnable {
+        def run {
+          task.runOnDetachedGlobals(queue)
+        }
+      })
+    }
+    rpTasks foreach (_.waitFinished)
+
+    task.results synchronized {
+      task.results.toList
+    }
+  }
+
   protected abstract class TransformTask extends UserTask {
     val results = new ArrayBuffer[ModificationResult]
 
@@ -136,6 +172,51 @@ abstract class ScalaRefactoringPlugin extends ProgressProviderAdapter with Refac
 
     protected def process(pResult: ScalaParserResult): Seq[ModificationResult]
 
+    /**
+     * Take files from queue until it's empty or cancelled, the detached globals are
+     * created on demand and shut down when done.
+     */
+    private[refactoring] def runOnDetachedGlobals(queue: java.util.Queue[(ClassPath, FileObject)]) {
+      val globals = new HashMap[ClassPath, ScalaGlobal]
+
+      def globalFor(srcCp: ClassPath, fo: FileObject): Option[ScalaGlobal] = {
+        globals.get(srcCp) match {
+          case Some(x) if !x.isShutdown => Some(x)
+          case _ =>
+            // * a broken one has been shut down by processGlobalException, so create it again
+            val x = ScalaGlobal.createDetachedGlobal(fo)
+            x foreach { globals(srcCp) = _ }
+            x
+        }
+      }
+
+      try {
+        var next = queue.poll
+        while ((next ne null) && !isCancelled) {
+          val (srcCp, fo) = next
+          for (global <- globalFor(srcCp, fo)) {
+            try {
+              val snapshot = Source.create(fo).createSnapshot
+              val r = process(ScalaParserResult(snapshot, global))
+              if (r ne null) {
+                results synchronized {
+                  results ++= r
+                }
+              }
+            } catch {
+              case ex: Throwable => global.processGlobalException(ex)
+            }
+          }
+          ScalaRefactoringPlugin.this synchronized {
+            fireProgressListenerStep
+          }
+          next = queue.poll
+        }
+      } finally {
+        globals.values foreach (_.askShutdown)
+      }
+    }
+
     @throws(classOf[ParseException])
     private def visit(ri: ResultIterator) {
       if (ri.getSnapshot.getMimeType == ScalaMimeResolver.MIME_TYPE) {
@@ -152,3 +233,25 @@ abstract class ScalaRefactoringPlugin extends ProgressProviderAdapter with Refac
   }
 
 }
+
+object ScalaRefactoringPlugin {
+  /** opt-in by -Dscala.refactoring.parallel=true */
+  private val isParallel = java.lang.Boolean.getBoolean("scala.refactoring.parallel")
+  /** estimated heap needed by one detached global */
+  private val GlobalFootprint = 256L * 1024 * 1024
+  private[refactoring] val MinFilesPerWorker = 8
+
+  /**
+   * Number of detached globals that could run concurrently, sized by available
+   * cores and free heap, and could be overridden by -Dscala.refactoring.parallel.workers=n
+   */
+  def numOfWorkers(nFiles: Int): Int = {
+    if (isParallel) {
+      val rt = Runtime.getRuntime
+      val byCores: Int = Integer.getInteger("scala.refactoring.parallel.workers", math.max(1, rt.availableProcessors - 1))
+      val byHeap = ((rt.maxMemory - (rt.totalMemory - rt.freeMemory)) / GlobalFootprint).toInt
+      val byFiles = nFiles / MinFilesPerWorker
+      math.max(1, byCores min byHeap min byFiles)
+    } else 1
+  }
+}
@@ -80,7 +80,6 @@ import scala.reflect.internal.Flags
 /**
  * Actual implementation of Find Usages query search
  *
- * @todo Perform index lookups to determine the set of files to be checked!
  * @todo Do more prechecks of the elements we're trying to find usages for
  *
  * @author Jan Becicka
@@ -116,7 +115,7 @@ class WhereUsedQueryPlugin(refactoring: WhereUsedQuery) extends ScalaRefactoring
       if (notLocal) {
         val srcCp = cpInfo.getClassPath(ClasspathInfo.PathKind.SOURCE)
         if (srcCp ne null) {
-          set ++= RetoucheUtils.getScalaFilesInSrcCp(srcCp, false)
+          set ++= RetoucheUtils.getScalaFilesWithIdentifier(srcCp, targetName, false)
         }
       }
     }